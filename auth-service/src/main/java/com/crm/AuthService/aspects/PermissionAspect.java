@@ -1,20 +1,22 @@
 package com.crm.AuthService.aspects;
 
 import com.crm.AuthService.role.services.PermissionService;
-import com.crm.AuthService.annotations.RequirePermission;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
-
-
-@Slf4j
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enforces {@link com.crm.AuthService.annotations.RequirePermission} on methods and classes.
+ * Requirements are resolved into a {@link PermissionGuard} on the first call of each
+ * (target class, method); later calls go straight to the permission lookup.
+ */
 @Aspect
 @Component
 @RequiredArgsConstructor
@@ -22,63 +24,24 @@ public class PermissionAspect {
 
     private final PermissionService permissionService;
 
-
-    @Around("@annotation(com.crm.AuthService.annotations.RequirePermission)")
-    public Object checkPermission(ProceedingJoinPoint joinPoint) throws Throwable {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-
-        RequirePermission annotation = method.getAnnotation(RequirePermission.class);
-
-        if (annotation == null) {
-            // Fallback: check class-level annotation
-            annotation = joinPoint.getTarget().getClass().getAnnotation(RequirePermission.class);
-        }
-
-        if (annotation != null) {
-            String resource = annotation.resource();
-            String action = annotation.action();
-
-            log.debug("Permission check: method={}, resource={}, action={}",
-                    method.getName(), resource, action);
-
-            if (!permissionService.hasPermission(resource, action)) {
-                log.warn("Access denied: method={}, resource={}, action={}",
-                        method.getName(), resource, action);
-                throw new AccessDeniedException(
-                        String.format("Access denied: Missing permission %s:%s", resource, action)
-                );
-            }
-
-            log.debug("Permission granted: method={}, resource={}, action={}",
-                    method.getName(), resource, action);
+    private final ClassValue<Map<Method, PermissionGuard>> guards = new ClassValue<>() {
+        @Override
+        protected Map<Method, PermissionGuard> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
         }
-
-        return joinPoint.proceed();
-    }
+    };
 
 
-    @Around("@within(com.crm.AuthService.annotations.RequirePermission)")
-    public Object checkClassLevelPermission(ProceedingJoinPoint joinPoint) throws Throwable {
-        RequirePermission annotation = joinPoint.getTarget().getClass()
-                .getAnnotation(RequirePermission.class);
-
-        if (annotation != null) {
-            String resource = annotation.resource();
-            String action = annotation.action();
-
-            log.debug("Class-level permission check: class={}, resource={}, action={}",
-                    joinPoint.getTarget().getClass().getSimpleName(), resource, action);
+    @Around("@annotation(com.crm.AuthService.annotations.RequirePermission)"
+            + " || @within(com.crm.AuthService.annotations.RequirePermission)")
+    public Object checkPermission(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = joinPoint.getTarget().getClass();
 
-            if (!permissionService.hasPermission(resource, action)) {
-                log.warn("Access denied (class-level): class={}, resource={}, action={}",
-                        joinPoint.getTarget().getClass().getSimpleName(), resource, action);
-                throw new AccessDeniedException(
-                        String.format("Access denied: Missing permission %s:%s", resource, action)
-                );
-            }
-        }
+        PermissionGuard guard = guards.get(targetClass)
+                .computeIfAbsent(method, m -> PermissionGuard.resolve(m, targetClass));
+        guard.check(permissionService);
 
         return joinPoint.proceed();
     }
-}
\ No newline at end of file
+}
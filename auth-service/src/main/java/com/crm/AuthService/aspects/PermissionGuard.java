@@ -0,0 +1,66 @@
+package com.crm.AuthService.aspects;
+
+import com.crm.AuthService.annotations.RequirePermission;
+import com.crm.AuthService.role.services.PermissionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link RequirePermission} requirements of one method, method-level and class-level combined,
+ * resolved once so an intercepted call only performs the permission lookups.
+ */
+@Slf4j
+final class PermissionGuard {
+
+    static final PermissionGuard NONE = new PermissionGuard(new String[0], new String[0], "");
+
+    private final String[] resources;
+    private final String[] actions;
+    private final String location;
+
+    private PermissionGuard(String[] resources, String[] actions, String location) {
+        this.resources = resources;
+        this.actions = actions;
+        this.location = location;
+    }
+
+    static PermissionGuard resolve(Method method, Class<?> targetClass) {
+        List<RequirePermission> requirements = new ArrayList<>(2);
+
+        RequirePermission methodLevel = method.getAnnotation(RequirePermission.class);
+        if (methodLevel != null) {
+            requirements.add(methodLevel);
+        }
+        RequirePermission classLevel = targetClass.getAnnotation(RequirePermission.class);
+        if (classLevel != null) {
+            requirements.add(classLevel);
+        }
+
+        if (requirements.isEmpty()) {
+            return NONE;
+        }
+
+        String[] resources = new String[requirements.size()];
+        String[] actions = new String[requirements.size()];
+        for (int i = 0; i < requirements.size(); i++) {
+            resources[i] = requirements.get(i).resource();
+            actions[i] = requirements.get(i).action();
+        }
+        return new PermissionGuard(resources, actions, targetClass.getSimpleName() + "." + method.getName());
+    }
+
+    void check(PermissionService permissionService) {
+        for (int i = 0; i < resources.length; i++) {
+            if (!permissionService.hasPermission(resources[i], actions[i])) {
+                log.warn("Access denied: method={}, resource={}, action={}", location, resources[i], actions[i]);
+                throw new AccessDeniedException(
+                        String.format("Access denied: Missing permission %s:%s", resources[i], actions[i])
+                );
+            }
+        }
+    }
+}
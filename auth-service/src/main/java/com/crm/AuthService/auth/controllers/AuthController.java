@@ -4,13 +4,18 @@ import com.crm.AuthService.auth.dtos.AuthResponse;
 import com.crm.AuthService.auth.dtos.LoginRequest;
 import com.crm.AuthService.auth.dtos.TenantRegistrationRequest;
 import com.crm.AuthService.auth.services.LoginService;
+import com.crm.AuthService.auth.services.LogoutService;
 import com.crm.AuthService.auth.services.RefreshTokenService;
 import com.crm.AuthService.auth.services.TenantRegistrationService;
 import com.crm.AuthService.exception.TenantNotFoundException;
-import com.crm.AuthService.tenant.entities.Tenant;
-import com.crm.AuthService.tenant.repository.TenantRepository;
+import com.crm.AuthService.security.LoginRateLimiter;
+import com.crm.AuthService.security.TenantContextHolder;
+import com.crm.AuthService.tenant.services.TenantDirectory;
+import com.crm.AuthService.tenant.services.TenantEntry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,14 +31,34 @@ public class AuthController {
     private final LoginService loginService;
     private final TenantRegistrationService tenantRegistrationService;
     private final RefreshTokenService refreshTokenService;
-    private final TenantRepository tenantRepository;
+    private final TenantDirectory tenantDirectory;
+    private final LoginRateLimiter loginRateLimiter;
+    private final LogoutService logoutService;
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // Throttled before the login transaction opens, so rejected attempts cost no connection, lookup or hash
+        String tenantKey = tenantKey(loginRequest);
+        loginRateLimiter.checkAttempt(tenantKey, loginRequest.getEmail(),
+                loginRateLimiter.clientIp(request.getHeader("X-Forwarded-For"), request.getRemoteAddr()));
+
         AuthResponse response = loginService.login(loginRequest);
+        loginRateLimiter.onSuccess(tenantKey, loginRequest.getEmail());
         return ResponseEntity.ok(response);
     }
 
+    private static String tenantKey(LoginRequest loginRequest) {
+        Long tenantId = TenantContextHolder.getTenantId();
+        if (tenantId == null) {
+            tenantId = loginRequest.getTenantId();
+        }
+        if (tenantId != null) {
+            return tenantId.toString();
+        }
+        String subdomain = TenantContextHolder.getTenantSubdomain();
+        return subdomain != null ? subdomain : String.valueOf(loginRequest.getTenantSubdomain());
+    }
+
 
     @PostMapping("/register")
     public ResponseEntity<String> register(
@@ -59,7 +84,13 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<String> logout() {
+    public ResponseEntity<String> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) Map<String, String> request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        logoutService.logout(accessToken, request != null ? request.get("refreshToken") : null);
         return ResponseEntity.ok("Déconnexion réussie");
     }
 
@@ -70,8 +101,7 @@ public class AuthController {
     }
     @GetMapping("/provision-status/{subdomain}")
     public ResponseEntity<Map<String, String>> getProvisioningStatus(@PathVariable String subdomain) {
-        Tenant tenant = tenantRepository.findBySubdomain(subdomain.toLowerCase())
-
+        TenantEntry tenant = tenantDirectory.findBySubdomain(subdomain)
                 .orElseThrow(() -> new TenantNotFoundException("Tenant not found: " + subdomain));
 
         Map<String, String> response = Map.of(
@@ -0,0 +1,56 @@
+package com.crm.AuthService.auth.controllers;
+
+import com.crm.AuthService.security.TokenDenylist;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Token denylist as seen by the other services; public like the permission catalog, it holds no token data.
+ */
+@RestController
+@RequestMapping("/api/v1/auth/denylist")
+@RequiredArgsConstructor
+public class TokenDenylistController {
+
+    private final TokenDenylist tokenDenylist;
+
+    /**
+     * The current Bloom filter; pollers send back the ETag and get 304 until an entry is added or expires.
+     */
+    @GetMapping("/bloom")
+    public ResponseEntity<Map<String, Object>> getBloomFilter(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TokenDenylist.Snapshot snapshot = tokenDenylist.snapshot();
+        String etag = "\"" + snapshot.version() + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(Map.of(
+                "version", snapshot.version(),
+                "hashes", snapshot.hashes(),
+                "bits", Base64.getEncoder().encodeToString(snapshot.bits())
+        ));
+    }
+
+    /**
+     * Authoritative lookup behind a Bloom hit: 404 when the entry is not revoked.
+     */
+    @GetMapping("/entries/{entry}")
+    public ResponseEntity<Map<String, Long>> getEntry(@PathVariable String entry) {
+        Long revokedAt = tokenDenylist.revokedAt(entry);
+        if (revokedAt == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("revokedAt", revokedAt));
+    }
+}
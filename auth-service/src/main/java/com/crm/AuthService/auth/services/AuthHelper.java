@@ -4,11 +4,11 @@ import com.crm.AuthService.auth.dtos.AuthResponse;
 import com.crm.AuthService.auth.dtos.TenantRegistrationRequest;
 import com.crm.AuthService.role.entities.Role;
 import com.crm.AuthService.security.JwtService;
+import com.crm.AuthService.security.RefreshTokenManager;
 import com.crm.AuthService.security.TenantContextHolder;
 import com.crm.AuthService.tenant.entities.Tenant;
 import com.crm.AuthService.user.entities.User;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -24,9 +24,7 @@ import java.util.stream.Collectors;
 public class AuthHelper {
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
-
-    @Value("${jwt.expiration}")
-    private Long jwtExpiration;
+    private final RefreshTokenManager refreshTokenManager;
 
     private static final String TENANT_STATUS_ACTIVE = "ACTIVE";
     private static final String TOKEN_TYPE_BEARER = "Bearer";
@@ -111,8 +109,9 @@ public class AuthHelper {
             tenantId = TenantContextHolder.getRequiredTenantId();
         }
 
+        // Each login starts a new refresh token family
         String accessToken = jwtService.generateToken(user, tenantId);
-        String refreshToken = jwtService.generateRefreshToken(user, tenantId);
+        String refreshToken = refreshTokenManager.issue(user, tenantId);
 
         return buildAuthResponse(user, accessToken, refreshToken);
     }
@@ -131,7 +130,7 @@ public class AuthHelper {
                 .accessToken(accessToken)
                 .refreshToken(refreshToken)
                 .tokenType(TOKEN_TYPE_BEARER)
-                .expiresIn(jwtExpiration / 1000)
+                .expiresIn(jwtService.getAccessTokenExpiration() / 1000)
                 .tenantId(user.getTenantId())
                 .username(user.getEmail())
                 .roles(roleNames)
@@ -7,7 +7,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Deliberately not transactional: the user is read in the repository's own short transaction, so no
+ * connection is held while the password check waits for and runs on the hashing pool.
+ */
 @Service
 @RequiredArgsConstructor
 public class LoginServiceImpl implements LoginService {
@@ -15,7 +19,6 @@ public class LoginServiceImpl implements LoginService {
     private final AuthenticationManager authenticationManager;
 
     @Override
-    @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest loginRequest) throws BadCredentialsException, DisabledException , LockedException {
         try {
             Authentication authentication = authenticationManager.authenticate(
@@ -0,0 +1,6 @@
+package com.crm.AuthService.auth.services;
+
+public interface LogoutService {
+    void logout(String accessToken, String refreshToken);
+
+}
@@ -0,0 +1,67 @@
+package com.crm.AuthService.auth.services;
+
+import com.crm.AuthService.security.JwtService;
+import com.crm.AuthService.security.RefreshTokenManager;
+import com.crm.AuthService.security.TokenDenylist;
+import com.crm.AuthService.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Denies the presented access token until it expires and ends the refresh token's session; a legacy
+ * refresh JWT is denied until it expires as well.
+ * Access tokens minted before they carried an id can only be revoked with every other token of the user.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogoutServiceImpl implements LogoutService {
+
+    private final JwtService jwtService;
+    private final TokenDenylist tokenDenylist;
+    private final RefreshTokenManager refreshTokenManager;
+
+    @Override
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            revokeAccessToken(accessToken);
+        }
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        if (refreshTokenManager.isOpaque(refreshToken)) {
+            refreshTokenManager.revoke(refreshToken);
+        } else {
+            revokeLegacyRefreshToken(refreshToken);
+        }
+    }
+
+    // Without an id it can no longer be exchanged anyway
+    private void revokeLegacyRefreshToken(String refreshToken) {
+        try {
+            VerifiedToken token = jwtService.verify(refreshToken);
+            tokenDenylist.revokeToken(token.getTokenId(), token.getExpiresAt());
+        } catch (JwtException | IllegalArgumentException e) {
+            // Already unusable
+        }
+    }
+
+    private void revokeAccessToken(String accessToken) {
+        VerifiedToken token;
+        try {
+            token = jwtService.verify(accessToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Already unusable
+            return;
+        }
+
+        if (token.getTokenId() != null) {
+            tokenDenylist.revokeToken(token.getTokenId(), token.getExpiresAt());
+        } else if (token.getUserId() != null && token.getTenantId() != null) {
+            tokenDenylist.revokeUser(token.getTenantId(), token.getUserId());
+        }
+        log.info("User logged out: userId={}, tenantId={}", token.getUserId(), token.getTenantId());
+    }
+}
@@ -2,66 +2,136 @@ package com.crm.AuthService.auth.services;
 
 import com.crm.AuthService.auth.dtos.AuthResponse;
 import com.crm.AuthService.exception.InvalidTokenException;
-import com.crm.AuthService.exception.TenantNotFoundException;
 import com.crm.AuthService.exception.UserNotFoundException;
-import com.crm.AuthService.role.entities.Role;
-import com.crm.AuthService.role.repositories.RoleRepository;
+import com.crm.AuthService.security.CustomUserDetailsService;
 import com.crm.AuthService.security.JwtService;
+import com.crm.AuthService.security.RefreshTokenManager;
+import com.crm.AuthService.security.RefreshTokenRecord;
 import com.crm.AuthService.security.TenantContextHolder;
-import com.crm.AuthService.tenant.entities.Tenant;
-import com.crm.AuthService.tenant.repository.TenantRepository;
+import com.crm.AuthService.security.TokenDenylist;
+import com.crm.AuthService.security.VerifiedToken;
 import com.crm.AuthService.user.entities.User;
-import com.crm.AuthService.user.repositories.UserRepository;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.time.Instant;
 
+/**
+ * Refreshes rotate opaque tokens through {@link RefreshTokenManager}: one store lookup, then the
+ * principal from the principal cache. Refresh JWTs issued before the store existed are still
+ * accepted once and exchanged for an opaque token: the JWT is denylisted on exchange.
+ * <p>
+ * Refresh and access JWTs carry the same claims, so a legacy refresh token is told apart by its
+ * lifetime, longer than any access token's, and must have been issued before the cutover.
+ */
 @Service
 @RequiredArgsConstructor
 public class RefreshTokenServiceImpl implements RefreshTokenService {
 
     private final JwtService jwtService;
     private final AuthHelper authHelper;
-    private final UserRepository userRepository;
-    // INJECT REPOSITORIES
-    private final TenantRepository tenantRepository;
-    private final RoleRepository roleRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final RefreshTokenManager refreshTokenManager;
+    private final TokenDenylist tokenDenylist;
+
+    // Turn off once every refresh JWT issued before the store has expired
+    @Value("${auth.refresh-tokens.accept-legacy:true}")
+    private boolean acceptLegacyTokens;
+
+    // When refresh JWTs stopped being issued; defaults to this instance's start
+    @Value("${auth.refresh-tokens.legacy-cutover:#{null}}")
+    private Instant legacyCutover;
+
+    private final Instant startedAt = Instant.now();
 
     @Override
     public AuthResponse refreshToken(String refreshToken) throws InvalidTokenException, UserNotFoundException {
+        if (!refreshTokenManager.isOpaque(refreshToken)) {
+            if (!acceptLegacyTokens) {
+                throw new InvalidTokenException("Refresh token invalide ou expiré");
+            }
+            return refreshLegacyToken(refreshToken);
+        }
 
-        String username = jwtService.extractUsername(refreshToken);
         Long tenantId = TenantContextHolder.getRequiredTenantId();
+        RefreshTokenRecord record = refreshTokenManager.rotate(refreshToken);
+        if (record.tenantId() != tenantId
+                || tokenDenylist.isUserRevokedSince(record.tenantId(), record.userId(), record.issuedAtMillis())) {
+            throw new InvalidTokenException("Refresh token invalide ou expiré");
+        }
 
-        User user = userRepository.findByEmail(username)
-                .orElseThrow(() -> new UserNotFoundException(username));
-
-        if (!jwtService.isTokenValid(refreshToken, user)) {
+        User user = loadUser(record.email());
+        if (user.getId() == null || user.getId() != record.userId()) {
+            // The email now belongs to another account
+            refreshTokenManager.revokeFamily(record.familyId());
             throw new InvalidTokenException("Refresh token invalide ou expiré");
         }
 
-        Tenant tenant = tenantRepository.findById(tenantId)
-                .orElseThrow(() -> new TenantNotFoundException("Tenant not found: " + tenantId));
+        authHelper.validateUserAndTenantStatus(user);
+
+        String newAccessToken = jwtService.generateToken(user, tenantId);
+        String newRefreshToken = refreshTokenManager.issue(user, tenantId, record.familyId());
+
+        return authHelper.buildAuthResponse(user, newAccessToken, newRefreshToken);
+    }
+
+    private AuthResponse refreshLegacyToken(String refreshToken) {
+        VerifiedToken token = verifyRefreshToken(refreshToken);
+        String username = token.getSubject();
+        Long tenantId = TenantContextHolder.getRequiredTenantId();
 
-        Set<String> roleNames = new HashSet<>();
-        if(user.getRoleIds() != null && !user.getRoleIds().isEmpty()) {
-            roleNames = roleRepository.findAllById(user.getRoleIds()).stream()
-                    .map(Role::getName)
-                    .collect(Collectors.toSet());
+        if (!isLegacyRefreshToken(token)
+                || token.getTenantId() != null && !token.getTenantId().equals(tenantId)
+                || tokenDenylist.isRevoked(token)) {
+            throw new InvalidTokenException("Refresh token invalide ou expiré");
         }
+        // Single use: the opaque token issued below replaces it
+        tokenDenylist.revokeToken(token.getTokenId(), token.getExpiresAt());
+
+        User user = loadUser(username);
 
-        user.setTenantId(tenant.getId());
-        user.setTenantName(tenant.getName());
-        user.setTenantStatus(tenant.getStatus());
-        user.setRoleNames(roleNames);
+        if (!jwtService.isTokenValid(token, user)) {
+            throw new InvalidTokenException("Refresh token invalide ou expiré");
+        }
 
         authHelper.validateUserAndTenantStatus(user);
 
         String newAccessToken = jwtService.generateToken(user, tenantId);
 
-        return authHelper.buildAuthResponse(user, newAccessToken, refreshToken);
+        return authHelper.buildAuthResponse(user, newAccessToken, refreshTokenManager.issue(user, tenantId));
+    }
+
+    /**
+     * Only a token with an id can be consumed once, and only a refresh token outlives the access token lifetime
+     * (iat and exp have whole seconds, hence the margin).
+     */
+    private boolean isLegacyRefreshToken(VerifiedToken token) {
+        if (token.getTokenId() == null || token.getIssuedAt() == null || token.getExpiresAt() == null) {
+            return false;
+        }
+        Instant cutover = legacyCutover != null ? legacyCutover : startedAt;
+        long lifetimeMs = Duration.between(token.getIssuedAt(), token.getExpiresAt()).toMillis();
+        return token.getIssuedAt().isBefore(cutover) && lifetimeMs > jwtService.getAccessTokenExpiration() + 1000;
+    }
+
+    // Served from the principal cache for repeat users; tenant and role names come populated
+    private User loadUser(String username) {
+        try {
+            return (User) userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            throw new UserNotFoundException(username);
+        }
+    }
+
+    private VerifiedToken verifyRefreshToken(String refreshToken) {
+        try {
+            return jwtService.verify(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Refresh token invalide ou expiré");
+        }
     }
-}
\ No newline at end of file
+}
@@ -9,6 +9,7 @@ import com.crm.AuthService.role.repositories.RoleRepository;
 import com.crm.AuthService.security.TenantContextHolder;
 import com.crm.AuthService.tenant.entities.Tenant;
 import com.crm.AuthService.tenant.repository.TenantRepository;
+import com.crm.AuthService.tenant.services.TenantDirectory;
 import com.crm.AuthService.user.entities.User;
 import com.crm.AuthService.user.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +32,7 @@ public class TenantRegistrationServiceImpl implements TenantRegistrationService
     private final UserRepository userRepository;
     private final TenantRepository tenantRepository;
     private final RoleRepository roleRepository;
+    private final TenantDirectory tenantDirectory;
 
     private static final String ROLE_ADMIN = "ROLE_ADMIN";
     private static final String ROLE_SUPER_ADMIN = "ROLE_SUPER_ADMIN";
@@ -48,7 +50,8 @@ public class TenantRegistrationServiceImpl implements TenantRegistrationService
         authHelper.validateSubdomain(request.getSubdomain());
         log.debug("✓ Subdomain format valid: {}", request.getSubdomain());
 
-        if (tenantRepository.findBySubdomain(request.getSubdomain()).isPresent()) {
+        // The unique constraint on subdomain still guards against a concurrent registration
+        if (tenantDirectory.findBySubdomain(request.getSubdomain()).isPresent()) {
             log.warn("✗ Subdomain already exists: {}", request.getSubdomain());
             throw new TenantAlreadyExistsException(request.getSubdomain());
         }
@@ -58,6 +61,7 @@ public class TenantRegistrationServiceImpl implements TenantRegistrationService
         Tenant newTenant = authHelper.buildTenant(request);
         newTenant.setStatus(TENANT_STATUS_ACTIVE);
         Tenant savedTenant = tenantRepository.save(newTenant);
+        tenantDirectory.onTenantSaved(savedTenant);
         log.info("✓ Tenant created: id={}, subdomain={}", savedTenant.getId(), savedTenant.getSubdomain());
 
         // STEP 3: Set tenant context for user creation
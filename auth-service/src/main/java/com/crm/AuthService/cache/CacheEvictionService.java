@@ -1,37 +1,102 @@
 package com.crm.AuthService.cache;
 
+import com.crm.AuthService.role.services.PermissionRegistry;
+import com.crm.AuthService.security.AuthSnapshotService;
+import com.crm.AuthService.security.PrincipalCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
 
+
+/**
+ * Single entry point for cache invalidation after writes. Evictions target the changed keys only:
+ * a role change evicts that role, the single allRoles entry and the principals holding the role,
+ * never whole caches. Every eviction is counted in {@code auth.cache.evictions}.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CacheEvictionService {
 
-    private final CacheManager cacheManager;
+    // Peer messages for the in-process principal cache: "user:<id>" or "role:<id>"
+    private static final String PRINCIPALS_CACHE = "principals";
+    private static final String USER_KEY_PREFIX = "user:";
+    private static final String ROLE_KEY_PREFIX = "role:";
+    private static final String ROLES_CACHE = "roles";
+
+    private final TwoLevelCacheManager cacheManager;
+    private final AuthSnapshotService authSnapshotService;
+    private final PrincipalCache principalCache;
+    private final PermissionRegistry permissionRegistry;
+    private final MeterRegistry meterRegistry;
+
+
+    @PostConstruct
+    void registerPeerListeners() {
+        // Principals are cached per instance; peers purge or invalidate theirs when the message arrives
+        cacheManager.addTenantPurgeListener(principalCache::invalidateTenant);
+        cacheManager.addPeerEvictionListener(this::onPeerEviction);
+    }
 
 
-    public void evictUserCaches(Long userId, String email) {
-        evictCache("users", email);
-        evictCache("userPermissions", userId);
-        log.debug("Evicted user caches: userId={}, email={}", userId, email);
+    void onPeerEviction(String cacheName, String key) {
+        // A role changed on another instance: recompile the bitsets used for checks and token claims.
+        // The writer publishes before and after its commit, so the second message sees the new rows
+        if (ROLES_CACHE.equals(cacheName)) {
+            permissionRegistry.refresh();
+            return;
+        }
+        if (!PRINCIPALS_CACHE.equals(cacheName)) {
+            return;
+        }
+        if (key == null) {
+            // Published instead of the individual invalidations when too many missed Redis
+            principalCache.invalidateAll();
+        } else if (key.startsWith(USER_KEY_PREFIX)) {
+            principalCache.invalidateUser(Long.valueOf(key.substring(USER_KEY_PREFIX.length())));
+        } else if (key.startsWith(ROLE_KEY_PREFIX)) {
+            principalCache.invalidateRole(Long.valueOf(key.substring(ROLE_KEY_PREFIX.length())));
+        }
     }
 
 
-    public void evictAllUserPermissions() {
-        clearCache("userPermissions");
-        clearCache("permissionChecks");
-        log.info("Evicted all user permission caches");
+    /**
+     * Drops the tenant's cached principals on every instance, for when it is suspended or offboarded.
+     */
+    public void purgeTenant(Long tenantId) {
+        cacheManager.purgeTenant(tenantId);
+        evictionCounter("all", "tenant").increment();
+    }
+
+
+    /**
+     * Principals are invalidated by user id, so they are dropped under every email they were cached with.
+     */
+    public void evictUserCaches(Long userId) {
+        authSnapshotService.markUserChanged(userId);
+        principalCache.invalidateUser(userId);
+        if (userId != null) {
+            cacheManager.broadcastEviction(PRINCIPALS_CACHE, USER_KEY_PREFIX + userId);
+        }
+        log.debug("Evicted user caches: userId={}", userId);
     }
 
 
     public void evictRoleCaches(Long roleId) {
-        evictCache("roles", roleId);
-        clearCache("allRoles");
-        evictAllUserPermissions(); // Roles affect user permissions
+        // getAllRoles() takes no arguments, so SimpleKey.EMPTY is its only key
+        evictKeys(Map.of(ROLES_CACHE, List.of(roleId), "allRoles", List.of(SimpleKey.EMPTY)));
+        principalCache.invalidateRole(roleId); // Only principals holding this role carry its permissions
+        if (roleId != null) {
+            cacheManager.broadcastEviction(PRINCIPALS_CACHE, ROLE_KEY_PREFIX + roleId);
+        }
+        permissionRegistry.rebuildAfterCommit(); // Recompile role bitsets once the change is visible
         log.debug("Evicted role caches: roleId={}", roleId);
     }
 
@@ -49,27 +114,44 @@ public class CacheEvictionService {
 
 
     private void evictCache(String cacheName, Object key) {
-        var cache = cacheManager.getCache(cacheName);
-        if (cache != null) {
-            cache.evict(key);
+        evictKeys(Map.of(cacheName, List.of(key)));
+    }
+
+
+    private void evictKeys(Map<String, List<?>> keysByCache) {
+        cacheManager.evictAll(keysByCache);
+        keysByCache.forEach((cacheName, keys) -> evictionCounter(cacheName, "key").increment(keys.size()));
+    }
+
+
+    /**
+     * Clears one cache without blocking Redis (SCAN + UNLINK) and returns the number of Redis keys removed.
+     */
+    public long clearCache(String cacheName) {
+        if (!(cacheManager.getCache(cacheName) instanceof TwoLevelCache cache)) {
+            return 0;
         }
+        long removed = cache.clearAndCount();
+        evictionCounter(cacheName, "clear").increment();
+        log.info("Cache cleared: cache={}, removedKeys={}", cacheName, removed);
+        return removed;
     }
 
 
-    private void clearCache(String cacheName) {
-        var cache = cacheManager.getCache(cacheName);
-        if (cache != null) {
-            cache.clear();
+    public long clearAllCaches() {
+        long removed = 0;
+        for (String cacheName : cacheManager.getCacheNames()) {
+            removed += clearCache(cacheName);
         }
+        log.warn("All caches cleared: removedKeys={}", removed);
+        return removed;
     }
 
-    public void clearAllCaches() {
-        cacheManager.getCacheNames().forEach(cacheName -> {
-            var cache = cacheManager.getCache(cacheName);
-            if (cache != null) {
-                cache.clear();
-            }
-        });
-        log.warn("All caches cleared");
+    private Counter evictionCounter(String cacheName, String scope) {
+        return Counter.builder("auth.cache.evictions")
+                .description("Cache invalidations issued")
+                .tag("cache", cacheName)
+                .tag("scope", scope)
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
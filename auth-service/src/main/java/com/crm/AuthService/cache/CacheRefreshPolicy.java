@@ -0,0 +1,26 @@
+package com.crm.AuthService.cache;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Per-cache early refresh settings for {@link TwoLevelCache}.
+ * <p>
+ * {@code staleWhileRevalidate} keeps an L1 entry past its TTL for that long: one caller reloads it
+ * while concurrent callers are served the previous value. {@code beta} drives probabilistic early
+ * refresh (XFetch): the closer an entry is to its TTL and the slower it was to load, the likelier a
+ * read triggers the reload ahead of time. A beta of 0 disables it; 1 is the usual setting.
+ */
+@Value
+public class CacheRefreshPolicy {
+
+    public static final CacheRefreshPolicy DISABLED = new CacheRefreshPolicy(Duration.ZERO, 0);
+
+    Duration staleWhileRevalidate;
+    double beta;
+
+    public boolean isEnabled() {
+        return beta > 0 || !staleWhileRevalidate.isZero();
+    }
+}
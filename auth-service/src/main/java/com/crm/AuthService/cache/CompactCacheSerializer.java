@@ -0,0 +1,243 @@
+package com.crm.AuthService.cache;
+
+import com.crm.AuthService.role.dtos.PermissionDto;
+import com.crm.AuthService.role.dtos.RoleResponse;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Schema-aware binary encoding for the role DTOs cached in Redis.
+ * <p>
+ * Every value starts with {@link #MAGIC}, a format version and a type tag. Types without a schema
+ * are written as JSON behind the same header. Values without the magic byte are read as plain JSON,
+ * so entries written before the codec was enabled stay readable; values with a newer format version
+ * are treated as a cache miss and reloaded, so a rolling deploy never fails on a foreign entry.
+ */
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC5;
+    static final byte FORMAT_VERSION = 1;
+
+    private static final byte TYPE_JSON = 0;
+    private static final byte TYPE_ROLE = 1;
+    private static final byte TYPE_ROLE_LIST = 2;
+    private static final byte TYPE_PERMISSION = 3;
+
+    private final GenericJackson2JsonRedisSerializer json;
+
+    public CompactCacheSerializer(GenericJackson2JsonRedisSerializer json) {
+        this.json = json;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+
+        Writer out = new Writer();
+        out.writeByte(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+
+        if (value instanceof RoleResponse role) {
+            out.writeByte(TYPE_ROLE);
+            writeRole(out, role);
+        } else if (value instanceof PermissionDto permission) {
+            out.writeByte(TYPE_PERMISSION);
+            writePermission(out, permission);
+        } else if (value instanceof List<?> list && list.stream().allMatch(RoleResponse.class::isInstance)) {
+            out.writeByte(TYPE_ROLE_LIST);
+            out.writeVarInt(list.size());
+            for (Object role : list) {
+                writeRole(out, (RoleResponse) role);
+            }
+        } else {
+            out.writeByte(TYPE_JSON);
+            out.writeBytes(json.serialize(value));
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return json.deserialize(bytes);
+        }
+        if (bytes.length < 3 || bytes[1] > FORMAT_VERSION) {
+            // Written by a newer build; let the caller reload it
+            return null;
+        }
+
+        Reader in = new Reader(bytes, 3);
+        try {
+            return switch (bytes[2]) {
+                case TYPE_ROLE -> readRole(in);
+                case TYPE_PERMISSION -> readPermission(in);
+                case TYPE_ROLE_LIST -> {
+                    int size = in.readVarInt();
+                    List<RoleResponse> roles = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        roles.add(readRole(in));
+                    }
+                    yield roles;
+                }
+                case TYPE_JSON -> json.deserialize(in.remaining());
+                default -> null;
+            };
+        } catch (IndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated cache value", e);
+        }
+    }
+
+    private static void writeRole(Writer out, RoleResponse role) {
+        out.writeNullableLong(role.getId());
+        out.writeString(role.getName());
+        out.writeString(role.getDescription());
+        out.writeByte(role.getIsSystemRole() == null ? 0 : role.getIsSystemRole() ? 2 : 1);
+
+        Set<PermissionDto> permissions = role.getPermissions();
+        if (permissions == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        out.writeVarInt(permissions.size() + 1);
+        for (PermissionDto permission : permissions) {
+            writePermission(out, permission);
+        }
+    }
+
+    private static RoleResponse readRole(Reader in) {
+        RoleResponse role = new RoleResponse();
+        role.setId(in.readNullableLong());
+        role.setName(in.readString());
+        role.setDescription(in.readString());
+        byte systemRole = in.readByte();
+        role.setIsSystemRole(systemRole == 0 ? null : systemRole == 2);
+
+        int permissionCount = in.readVarInt();
+        if (permissionCount > 0) {
+            Set<PermissionDto> permissions = new LinkedHashSet<>();
+            for (int i = 1; i < permissionCount; i++) {
+                permissions.add(readPermission(in));
+            }
+            role.setPermissions(permissions);
+        }
+        return role;
+    }
+
+    private static void writePermission(Writer out, PermissionDto permission) {
+        out.writeNullableLong(permission.getId());
+        out.writeString(permission.getResource());
+        out.writeString(permission.getAction());
+    }
+
+    private static PermissionDto readPermission(Reader in) {
+        return new PermissionDto(in.readNullableLong(), in.readString(), in.readString());
+    }
+
+    /**
+     * Varint-encoded lengths and ids; null values are stored as 0 and everything else shifted by one.
+     */
+    private static final class Writer extends ByteArrayOutputStream {
+
+        Writer() {
+            super(256);
+        }
+
+        void writeByte(int b) {
+            write(b);
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeNullableLong(Long value) {
+            writeVarLong(value == null ? 0 : value + 1);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(utf8.length + 1);
+            writeBytes(utf8);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        byte readByte() {
+            return bytes[position++];
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        Long readNullableLong() {
+            long value = readVarLong();
+            return value == 0 ? null : value - 1;
+        }
+
+        String readString() {
+            int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            if (position + length - 1 > bytes.length) {
+                throw new IndexOutOfBoundsException(position + length - 1);
+            }
+            String value = new String(bytes, position, length - 1, StandardCharsets.UTF_8);
+            position += length - 1;
+            return value;
+        }
+
+        byte[] remaining() {
+            byte[] rest = new byte[bytes.length - position];
+            System.arraycopy(bytes, position, rest, 0, rest.length);
+            return rest;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.crm.AuthService.cache;
+
+import com.crm.AuthService.role.entities.Role;
+import com.crm.AuthService.tenant.entities.Tenant;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the Hibernate second-level cache of this instance in line with writes made on other instances.
+ * <p>
+ * Local writes need nothing: the regions are READ_WRITE, so Hibernate updates them on commit and bumps
+ * the table timestamps that guard the query cache. Those regions are per instance though, so the role
+ * and tenant evictions other instances publish through {@link TwoLevelCacheManager} are replayed here:
+ * the entity, its permission collection and the query results, which peers cannot invalidate by timestamp.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HibernateCacheInvalidator {
+
+    private static final String ROLE_PERMISSIONS_ROLE = Role.class.getName() + ".permissions";
+
+    private final TwoLevelCacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void registerPeerEvictionListener() {
+        cacheManager.addPeerEvictionListener(this::onPeerEviction);
+    }
+
+    void onPeerEviction(String cacheName, String key) {
+        switch (cacheName) {
+            case "roles" -> evictRole(parseId(key));
+            // Sent alongside the role key on every role change; only the role lists need to go
+            case "allRoles" -> secondLevelCache().evictDefaultQueryRegion();
+            case "tenants" -> evictTenant(parseId(key));
+            default -> {
+                return;
+            }
+        }
+        log.debug("Second-level cache evicted for peer eviction: cache={}, key={}", cacheName, key);
+    }
+
+    private void evictRole(Long roleId) {
+        org.hibernate.Cache cache = secondLevelCache();
+        if (roleId != null) {
+            cache.evictEntityData(Role.class, roleId);
+            cache.evictCollectionData(ROLE_PERMISSIONS_ROLE, roleId);
+        } else {
+            cache.evictEntityData(Role.class);
+            cache.evictCollectionData(ROLE_PERMISSIONS_ROLE);
+        }
+        cache.evictDefaultQueryRegion();
+    }
+
+    private void evictTenant(Long tenantId) {
+        org.hibernate.Cache cache = secondLevelCache();
+        // Evictions by subdomain carry no id; the tenant region is small enough to drop whole
+        if (tenantId != null) {
+            cache.evictEntityData(Tenant.class, tenantId);
+        } else {
+            cache.evictEntityData(Tenant.class);
+        }
+    }
+
+    private org.hibernate.Cache secondLevelCache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    // Role and tenant ids are published as their decimal form; anything else (SimpleKey, subdomain) is not an id
+    private static Long parseId(String key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(key);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.crm.AuthService.cache;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Settings of the Caffeine L1 tier built by {@link TwoLevelCacheManager}.
+ */
+@Value
+@Builder
+public class LocalCacheSettings {
+
+    long maxSize;
+
+    Duration ttl;
+
+    Function<String, CacheRefreshPolicy> refreshPolicies;
+}
@@ -0,0 +1,94 @@
+package com.crm.AuthService.cache;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Multi-key Redis deletes for the cache layer that never block the server.
+ * <p>
+ * Clears walk the keyspace with incremental {@code SCAN} instead of {@code KEYS} and remove each page
+ * with a single {@code UNLINK}, which frees memory off the main thread. Evictions of known keys and
+ * their invalidation messages are pipelined into one round trip.
+ */
+class RedisBulkOperations {
+
+    private final StringRedisTemplate redisTemplate;
+    private final int batchSize;
+
+    RedisBulkOperations(StringRedisTemplate redisTemplate, int batchSize) {
+        this.redisTemplate = redisTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Removes every key starting with the prefix and returns how many were removed.
+     */
+    long unlinkByPrefix(String prefix) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(escapeGlob(prefix) + "*")
+                .count(batchSize)
+                .build();
+
+        Long removed = redisTemplate.execute((RedisCallback<Long>) connection -> {
+            long total = 0;
+            List<byte[]> batch = new ArrayList<>(batchSize);
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == batchSize) {
+                        total += unlink(connection, batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                total += unlink(connection, batch);
+            }
+            return total;
+        });
+        return removed != null ? removed : 0;
+    }
+
+    /**
+     * Removes the keys and publishes the messages in a single pipelined round trip.
+     */
+    long unlinkAndPublish(Collection<String> keys, String channel, Collection<String> messages) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            if (!keys.isEmpty()) {
+                connection.keyCommands().unlink(toBytes(keys));
+            }
+            byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+            for (String message : messages) {
+                connection.publish(channelBytes, message.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        return !keys.isEmpty() && !results.isEmpty() && results.get(0) instanceof Long count ? count : 0;
+    }
+
+    private static long unlink(RedisConnection connection, List<byte[]> keys) {
+        Long removed = connection.keyCommands().unlink(keys.toArray(new byte[0][]));
+        return removed != null ? removed : 0;
+    }
+
+    private static byte[][] toBytes(Collection<String> keys) {
+        byte[][] bytes = new byte[keys.size()][];
+        int i = 0;
+        for (String key : keys) {
+            bytes[i++] = key.getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    private static String escapeGlob(String prefix) {
+        return prefix.replaceAll("([*?\\[\\]\\\\])", "\\\\$1");
+    }
+}
@@ -0,0 +1,45 @@
+package com.crm.AuthService.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/rediscache}: Redis breaker state and how the caches are being served without Redis.
+ */
+@Component
+@Endpoint(id = "rediscache")
+@RequiredArgsConstructor
+public class RedisCacheEndpoint {
+
+    private final TwoLevelCacheManager cacheManager;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        RedisCircuitBreaker breaker = cacheManager.getBreaker();
+
+        Map<String, Object> fallback = new TreeMap<>();
+        cacheManager.getCaches().forEach((name, cache) -> {
+            long hits = cache.fallbackHitCount();
+            long misses = cache.fallbackMissCount();
+            fallback.put(name, Map.of(
+                    "hits", hits,
+                    "misses", misses,
+                    "hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses)
+            ));
+        });
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", breaker.getState());
+        status.put("consecutiveFailures", breaker.getConsecutiveFailures());
+        status.put("openedAt", breaker.getOpenedAt());
+        status.put("pendingEvictions", cacheManager.getPendingEvictionCount());
+        status.put("fallback", fallback);
+        return status;
+    }
+}
@@ -0,0 +1,99 @@
+package com.crm.AuthService.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Consecutive-failure breaker guarding every Redis call made by {@link TwoLevelCache}.
+ * <p>
+ * After {@code failureThreshold} failures in a row the breaker opens and Redis is skipped entirely;
+ * caches are served from their L1 and the database. Once {@code openDuration} has passed, a single
+ * call is let through as a probe: its success closes the breaker, its failure opens it again.
+ */
+@Slf4j
+public class RedisCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+
+    public RedisCircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDuration.toMillis();
+    }
+
+    /**
+     * True when a Redis call may be attempted now; every permitted call must report its outcome.
+     */
+    public boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (System.currentTimeMillis() - openedAt < openDurationMs) {
+            return false;
+        }
+        if (probeInFlight.compareAndSet(false, true)) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return false;
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            probeInFlight.set(false);
+            log.info("Redis cache breaker closed; Redis is reachable again");
+        }
+    }
+
+    public void recordFailure(RuntimeException e) {
+        if (state == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("Redis cache breaker opened, serving from local caches: {}", e.getMessage());
+            }
+            openedAt = System.currentTimeMillis();
+            state = State.OPEN;
+            probeInFlight.set(false);
+        } else {
+            log.debug("Redis cache operation failed: {}", e.getMessage());
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    public Instant getOpenedAt() {
+        return state == State.CLOSED ? null : Instant.ofEpochMilli(openedAt);
+    }
+
+    /**
+     * Time left before the next probe may go through; zero unless the breaker is open.
+     */
+    public Duration getRemainingOpenTime() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(Math.max(0, openDurationMs - (System.currentTimeMillis() - openedAt)));
+    }
+}
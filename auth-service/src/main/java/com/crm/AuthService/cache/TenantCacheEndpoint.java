@@ -0,0 +1,38 @@
+package com.crm.AuthService.cache;
+
+import com.crm.AuthService.security.PrincipalCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code tenantcache}: per-tenant footprint and hit ratio of the principal cache, the only cache
+ * partitioned by tenant; its delete operation purges one tenant on every instance.
+ * <p>
+ * Not exposed over HTTP, where actuator endpoints are unauthenticated; use JMX or an access-controlled
+ * management port.
+ */
+@Component
+@Endpoint(id = "tenantcache")
+@RequiredArgsConstructor
+public class TenantCacheEndpoint {
+
+    private final PrincipalCache principalCache;
+    private final CacheEvictionService cacheEvictionService;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return Map.of("principals", principalCache.stats());
+    }
+
+    @DeleteOperation
+    public Map<String, Object> purge(@Selector Long tenantId) {
+        cacheEvictionService.purgeTenant(tenantId);
+        return Map.of("tenantId", tenantId);
+    }
+}
@@ -0,0 +1,142 @@
+package com.crm.AuthService.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * An in-process cache split into one Caffeine partition per tenant, each with its own size bound,
+ * so a large tenant can only evict its own entries.
+ * <p>
+ * Partitions are created on first use and removed as a whole by {@link #invalidateTenant(long)}, once
+ * unused for the idle timeout, or when more than {@code maxPartitions} tenants are active (least recently
+ * used first), so the footprint stays bounded whatever the number of tenants. Data that belongs to no
+ * tenant lives in the {@link #GLOBAL} partition. Micrometer only sees the cache as a
+ * whole (the usual Caffeine meters, summed over partitions), so the meter count does not grow with the
+ * number of tenants; per-tenant figures come from {@link #stats()}.
+ */
+public class TenantPartitionedCache<K, V> {
+
+    public static final long GLOBAL = -1L;
+
+    private final LongFunction<Cache<K, V>> partitionFactory;
+    private final Cache<Long, Cache<K, V>> partitions;
+    // Stats of removed partitions, so the summed counters never go backwards
+    private final AtomicReference<CacheStats> retiredStats = new AtomicReference<>(CacheStats.empty());
+
+    /**
+     * @param partitionFactory builds the partition of a tenant (or {@link #GLOBAL}); it should record stats
+     * @param maxPartitions    tenants holding a partition at once
+     * @param idleTimeout      a partition nobody read or wrote for this long is dropped
+     */
+    public TenantPartitionedCache(String name, LongFunction<Cache<K, V>> partitionFactory, long maxPartitions,
+                                  Duration idleTimeout, MeterRegistry meterRegistry) {
+        this.partitionFactory = partitionFactory;
+        this.partitions = Caffeine.newBuilder()
+                .maximumSize(maxPartitions)
+                .expireAfterAccess(idleTimeout)
+                .executor(Runnable::run)
+                .<Long, Cache<K, V>>removalListener((tenantId, partition, cause) -> {
+                    if (partition != null) {
+                        partition.invalidateAll();
+                        retiredStats.accumulateAndGet(partition.stats(), CacheStats::plus);
+                    }
+                })
+                .build();
+        registerMeters(name, partitions.asMap(), retiredStats, meterRegistry);
+    }
+
+    public V getIfPresent(long tenantId, K key) {
+        return partition(tenantId).getIfPresent(key);
+    }
+
+    public void put(long tenantId, K key, V value) {
+        partition(tenantId).put(key, value);
+    }
+
+    public void invalidate(long tenantId, K key) {
+        Cache<K, V> partition = partitions.getIfPresent(tenantId);
+        if (partition != null) {
+            partition.invalidate(key);
+        }
+    }
+
+    /**
+     * Drops every entry of the tenant and its partition; returns how many entries were held.
+     */
+    public long invalidateTenant(long tenantId) {
+        Cache<K, V> partition = partitions.getIfPresent(tenantId);
+        if (partition == null) {
+            return 0;
+        }
+        long entries = partition.estimatedSize();
+        // The removal listener clears it and keeps its stats
+        partitions.invalidate(tenantId);
+        return entries;
+    }
+
+    public void invalidateAll() {
+        partitions.asMap().values().forEach(Cache::invalidateAll);
+    }
+
+    /**
+     * Footprint and hit ratio per tenant, keyed by tenant id ("global" for {@link #GLOBAL}).
+     */
+    public Map<String, TenantCacheStats> stats() {
+        Map<String, TenantCacheStats> stats = new TreeMap<>();
+        partitions.asMap().forEach((tenantId, partition) -> {
+            CacheStats cacheStats = partition.stats();
+            stats.put(tenantTag(tenantId), new TenantCacheStats(
+                    partition.estimatedSize(), cacheStats.hitCount(), cacheStats.missCount(), cacheStats.hitRate()));
+        });
+        return stats;
+    }
+
+    private Cache<K, V> partition(long tenantId) {
+        Cache<K, V> partition = partitions.getIfPresent(tenantId);
+        if (partition != null) {
+            return partition;
+        }
+        return partitions.get(tenantId, partitionFactory::apply);
+    }
+
+    private static void registerMeters(String name, Map<Long, ? extends Cache<?, ?>> partitions,
+                                       AtomicReference<CacheStats> retiredStats, MeterRegistry meterRegistry) {
+        Collection<? extends Cache<?, ?>> caches = partitions.values();
+        Gauge.builder("cache.size", caches, c -> c.stream().mapToLong(Cache::estimatedSize).sum())
+                .description("The number of entries in this cache, over all tenants")
+                .tag("cache", name)
+                .register(meterRegistry);
+        statCounter(meterRegistry, "cache.gets", Tags.of("cache", name, "result", "hit"), caches, retiredStats, CacheStats::hitCount);
+        statCounter(meterRegistry, "cache.gets", Tags.of("cache", name, "result", "miss"), caches, retiredStats, CacheStats::missCount);
+        statCounter(meterRegistry, "cache.evictions", Tags.of("cache", name), caches, retiredStats, CacheStats::evictionCount);
+    }
+
+    private static void statCounter(MeterRegistry meterRegistry, String meterName, Tags tags,
+                                    Collection<? extends Cache<?, ?>> caches, AtomicReference<CacheStats> retiredStats,
+                                    ToLongFunction<CacheStats> stat) {
+        FunctionCounter.builder(meterName, caches,
+                        c -> stat.applyAsLong(c.stream().map(Cache::stats).reduce(retiredStats.get(), CacheStats::plus)))
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private static String tenantTag(long tenantId) {
+        return tenantId == GLOBAL ? "global" : String.valueOf(tenantId);
+    }
+
+    public record TenantCacheStats(long entries, long hits, long misses, double hitRate) {
+    }
+}
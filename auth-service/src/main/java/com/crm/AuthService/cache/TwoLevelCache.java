@@ -0,0 +1,325 @@
+package com.crm.AuthService.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A per-instance Caffeine L1 in front of a shared Redis L2 cache.
+ * <p>
+ * Reads are served from L1 when possible and fill it from L2 on a miss. Writes and evictions go to
+ * both levels and are broadcast so the other instances drop their L1 copy. Inside a transaction,
+ * evictions are repeated after commit so no instance keeps a value read before the commit.
+ * L1 keys use the same string form Redis uses for its keys.
+ * <p>
+ * Loads through {@link #get(Object, Callable)} (used by {@code @Cacheable(sync = true)}) are
+ * single-flight per key: concurrent misses wait for one loader instead of all querying the database.
+ * With a {@link CacheRefreshPolicy}, the entry is reloaded by the caller that finds it due while the
+ * others keep reading the previous value, so TTL boundaries never block a burst of requests. An early
+ * (XFetch) refresh runs the loader and rewrites Redis; its duration is stored next to the Redis value
+ * so every instance weights the early refresh by what a reload really costs.
+ * <p>
+ * Redis failures never reach the caller: reads fall back to L1 and the loader, writes stay local
+ * and missed evictions are handed to the manager for replay (see {@link RedisCircuitBreaker}).
+ */
+public class TwoLevelCache implements org.springframework.cache.Cache {
+
+    private final String name;
+    private final Cache<String, LocalEntry> local;
+    private final org.springframework.cache.Cache remote;
+    private final TwoLevelCacheManager manager;
+    private final CacheRefreshPolicy refreshPolicy;
+    private final long localTtlNanos;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> loadsInFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Boolean> refreshesInFlight = new ConcurrentHashMap<>();
+
+    private final Counter coalescedLoads;
+    private final Counter earlyRefreshes;
+    private final Counter staleServed;
+    private final Counter fallbackHits;
+    private final Counter fallbackMisses;
+
+    TwoLevelCache(String name, Cache<String, LocalEntry> local, org.springframework.cache.Cache remote,
+                  TwoLevelCacheManager manager, CacheRefreshPolicy refreshPolicy, long localTtlNanos,
+                  Counter coalescedLoads, Counter earlyRefreshes, Counter staleServed,
+                  Counter fallbackHits, Counter fallbackMisses) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.manager = manager;
+        this.refreshPolicy = refreshPolicy;
+        this.localTtlNanos = localTtlNanos;
+        this.coalescedLoads = coalescedLoads;
+        this.earlyRefreshes = earlyRefreshes;
+        this.staleServed = staleServed;
+        this.fallbackHits = fallbackHits;
+        this.fallbackMisses = fallbackMisses;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        LocalEntry entry = local.getIfPresent(localKey);
+        if (entry != null && !entry.isExpired(System.nanoTime(), localTtlNanos)) {
+            recordLocalHit();
+            return entry.wrapper();
+        }
+
+        ValueWrapper wrapper = remoteGet(key);
+        if (wrapper != null) {
+            putLocalFromRemote(localKey, wrapper);
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        LocalEntry entry = local.getIfPresent(localKey);
+        if (entry == null) {
+            return (T) loadOnce(key, localKey, valueLoader);
+        }
+
+        long now = System.nanoTime();
+        if (!isRefreshDue(entry, now)) {
+            recordLocalHit();
+            return (T) entry.wrapper().get();
+        }
+
+        // Only the first caller reloads; the others keep the current value until it is replaced
+        if (refreshesInFlight.putIfAbsent(localKey, Boolean.TRUE) != null) {
+            if (entry.isExpired(now, localTtlNanos)) {
+                staleServed.increment();
+            }
+            return (T) entry.wrapper().get();
+        }
+        try {
+            earlyRefreshes.increment();
+            // Before the L1 TTL Redis still holds the same value, so only the loader can refresh it
+            return (T) (entry.isExpired(now, localTtlNanos)
+                    ? load(key, localKey, valueLoader)
+                    : loadFromSource(key, localKey, valueLoader));
+        } finally {
+            refreshesInFlight.remove(localKey);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        putRemote(key, value);
+        String localKey = localKey(key);
+        local.put(localKey, new LocalEntry(() -> value, System.nanoTime(), 0));
+        manager.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        runNowAndAfterCommit(() -> {
+            if (!manager.runRemote(() -> remote.evict(key))) {
+                manager.deferEviction(name, key);
+            }
+            evictLocal(localKey);
+            manager.publishEvict(name, localKey);
+        });
+    }
+
+    @Override
+    public void clear() {
+        clearAndCount();
+    }
+
+    /**
+     * Clears both levels and returns how many Redis keys were removed (0 when Redis was unavailable).
+     */
+    public long clearAndCount() {
+        long[] removed = new long[1];
+        runNowAndAfterCommit(() -> {
+            Long count = manager.callRemote(() -> manager.unlinkRemote(name, remote), null);
+            if (count == null) {
+                manager.deferEviction(name, null);
+            } else {
+                removed[0] += count;
+            }
+            local.invalidateAll();
+            manager.publishClear(name);
+        });
+        return removed[0];
+    }
+
+    org.springframework.cache.Cache getRemote() {
+        return remote;
+    }
+
+    void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    /**
+     * Past the L1 TTL an entry can only be here inside the stale window. Before it, XFetch:
+     * refresh once {@code age - delta * beta * ln(random)} reaches the TTL, delta being the loader duration.
+     */
+    private boolean isRefreshDue(LocalEntry entry, long now) {
+        long age = now - entry.loadedAt();
+        if (age >= localTtlNanos) {
+            return true;
+        }
+        if (refreshPolicy.getBeta() <= 0) {
+            return false;
+        }
+        double jitter = entry.loadNanos() * refreshPolicy.getBeta() * -Math.log(ThreadLocalRandom.current().nextDouble());
+        return age + jitter >= localTtlNanos;
+    }
+
+    private Object loadOnce(Object key, String localKey, Callable<?> valueLoader) {
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loadsInFlight.putIfAbsent(localKey, load);
+        if (inFlight != null) {
+            coalescedLoads.increment();
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+
+        try {
+            Object value = load(key, localKey, valueLoader);
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadsInFlight.remove(localKey, load);
+        }
+    }
+
+    /**
+     * Reads L2 first and only runs the loader when Redis has no value either.
+     */
+    private Object load(Object key, String localKey, Callable<?> valueLoader) {
+        ValueWrapper wrapper = remoteGet(key);
+        if (wrapper == null) {
+            return loadFromSource(key, localKey, valueLoader);
+        }
+        putLocalFromRemote(localKey, wrapper);
+        return wrapper.get();
+    }
+
+    private Object loadFromSource(Object key, String localKey, Callable<?> valueLoader) {
+        long startedAt = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value == null) {
+            return null;
+        }
+        long loadNanos = System.nanoTime() - startedAt;
+        putRemote(key, value);
+        if (refreshPolicy.getBeta() > 0) {
+            manager.recordLoadNanos(this, localKey, loadNanos);
+        }
+        manager.publishEvict(name, localKey);
+        local.put(localKey, new LocalEntry(() -> value, System.nanoTime(), loadNanos));
+        return value;
+    }
+
+    // The loader duration is only fetched where XFetch uses it
+    private void putLocalFromRemote(String localKey, ValueWrapper wrapper) {
+        long loadNanos = refreshPolicy.getBeta() > 0 ? manager.remoteLoadNanos(this, localKey) : 0;
+        local.put(localKey, new LocalEntry(wrapper, System.nanoTime(), loadNanos));
+    }
+
+    private ValueWrapper remoteGet(Object key) {
+        if (!manager.getBreaker().isClosed()) {
+            fallbackMisses.increment();
+        }
+        return manager.callRemote(() -> remote.get(key), null);
+    }
+
+    // A failed write may leave an older value in Redis, so it is evicted there once Redis is back
+    private void putRemote(Object key, Object value) {
+        if (!manager.runRemote(() -> remote.put(key, value))) {
+            manager.deferEviction(name, key);
+        }
+    }
+
+    private void recordLocalHit() {
+        if (!manager.getBreaker().isClosed()) {
+            fallbackHits.increment();
+        }
+    }
+
+    long fallbackHitCount() {
+        return (long) fallbackHits.count();
+    }
+
+    long fallbackMissCount() {
+        return (long) fallbackMisses.count();
+    }
+
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    static void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * L1 value with its load time and how long the loader took to compute it (0 when unknown), which weights the early refresh.
+     */
+    record LocalEntry(ValueWrapper wrapper, long loadedAt, long loadNanos) {
+
+        boolean isExpired(long now, long ttlNanos) {
+            return now - loadedAt >= ttlNanos;
+        }
+    }
+}
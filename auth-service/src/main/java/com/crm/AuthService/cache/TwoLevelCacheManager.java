@@ -0,0 +1,429 @@
+package com.crm.AuthService.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the Redis cache manager so every cache gets a Caffeine L1 on this instance.
+ * <p>
+ * Evictions are published on {@link #INVALIDATION_CHANNEL} as {@code origin \n cacheName \n key}
+ * (no key for a clear); each instance drops the matching L1 entries for messages it did not send.
+ * L1 entries also expire after a short TTL, which bounds staleness if a message is lost; caches with a
+ * {@link CacheRefreshPolicy} keep them for an extra stale-while-revalidate window.
+ * <p>
+ * Every Redis call goes through a {@link RedisCircuitBreaker}. While it is open, caches run on L1
+ * and the database only; evictions that could not reach Redis are replayed once it recovers (or the
+ * whole cache is cleared if too many piled up), so Redis never serves a value evicted during the outage.
+ * Broadcasts for in-process caches are queued the same way and published once Redis is back; past the
+ * limit a single clear of that cache is published instead.
+ * <p>
+ * The caches here hold global data only (roles, tenants). {@link #purgeTenant(long)} notifies the
+ * in-process tenant caches registered through {@link #addTenantPurgeListener(LongConsumer)}, here and
+ * on peers over {@link #TENANT_PURGE_CHANNEL}. Caches living outside this manager (e.g. the Hibernate
+ * second-level cache) follow peer evictions through {@link #addPeerEvictionListener(BiConsumer)}.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "auth:cache-invalidation";
+    public static final String TENANT_PURGE_CHANNEL = "auth:cache-tenant-purge";
+
+    // Stored next to a Redis entry: how long its loader took, in nanoseconds
+    static final String LOAD_NANOS_SUFFIX = "#load-ns";
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final LocalCacheSettings localSettings;
+    private final RedisCircuitBreaker breaker;
+    private final int maxPendingEvictions;
+    private final RedisBulkOperations bulkOperations;
+
+    // Evictions that missed Redis while it was unavailable; a null key stands for a clear
+    private final Set<PendingEviction> pendingEvictions = ConcurrentHashMap.newKeySet();
+    private final Set<String> overflowedCaches = ConcurrentHashMap.newKeySet();
+    // Broadcasts that could not be published; a null key stands for a clear
+    private final Set<PendingEviction> pendingBroadcasts = ConcurrentHashMap.newKeySet();
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final List<LongConsumer> tenantPurgeListeners = new CopyOnWriteArrayList<>();
+    private final List<BiConsumer<String, String>> peerEvictionListeners = new CopyOnWriteArrayList<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, StringRedisTemplate redisTemplate,
+                                MeterRegistry meterRegistry, LocalCacheSettings localSettings,
+                                RedisCircuitBreaker breaker, int maxPendingEvictions, int scanBatchSize) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.localSettings = localSettings;
+        this.breaker = breaker;
+        this.maxPendingEvictions = maxPendingEvictions;
+        this.bulkOperations = new RedisBulkOperations(redisTemplate, scanBatchSize);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> createCache(n, remote));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    private TwoLevelCache createCache(String name, Cache remote) {
+        CacheRefreshPolicy refreshPolicy = localSettings.getRefreshPolicies().apply(name);
+        long retainNanos = localSettings.getTtl().plus(refreshPolicy.getStaleWhileRevalidate()).toNanos();
+
+        com.github.benmanes.caffeine.cache.Cache<String, TwoLevelCache.LocalEntry> local = Caffeine.newBuilder()
+                .maximumSize(localSettings.getMaxSize())
+                .expireAfter(retainAfterWrite(retainNanos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "l1." + name);
+
+        return new TwoLevelCache(name, local, remote, this, refreshPolicy, localSettings.getTtl().toNanos(),
+                counter("auth.cache.loads.coalesced", name, "Cache misses that waited for a load already in flight"),
+                counter("auth.cache.refreshes", name, "Entries reloaded before or at their L1 expiry"),
+                counter("auth.cache.stale.served", name, "Expired entries served while another caller reloads them"),
+                fallbackCounter(name, "hit"),
+                fallbackCounter(name, "miss"));
+    }
+
+    private static Expiry<String, TwoLevelCache.LocalEntry> retainAfterWrite(long retainNanos) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, TwoLevelCache.LocalEntry entry, long currentTime) {
+                return retainNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, TwoLevelCache.LocalEntry entry, long currentTime, long currentDuration) {
+                return retainNanos;
+            }
+
+            @Override
+            public long expireAfterRead(String key, TwoLevelCache.LocalEntry entry, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private Counter fallbackCounter(String cacheName, String result) {
+        return Counter.builder("auth.cache.fallback")
+                .description("Reads answered without Redis while the breaker is open (hit = from L1, miss = reloaded)")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter counter(String meterName, String cacheName, String description) {
+        return Counter.builder(meterName)
+                .description(description)
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+
+    public RedisCircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    public int getPendingEvictionCount() {
+        return pendingEvictions.size() + pendingBroadcasts.size();
+    }
+
+    Map<String, TwoLevelCache> getCaches() {
+        return caches;
+    }
+
+    /**
+     * Runs a Redis call, or returns the fallback when the breaker is open or the call fails.
+     * Evictions missed earlier are replayed first, so the call never sees a value they removed.
+     */
+    <T> T callRemote(Supplier<T> operation, T fallback) {
+        if (!breaker.tryAcquire()) {
+            return fallback;
+        }
+        try {
+            if (!pendingEvictions.isEmpty() || !overflowedCaches.isEmpty() || !pendingBroadcasts.isEmpty()) {
+                replayPendingEvictions();
+            }
+            T result = operation.get();
+            breaker.recordSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            breaker.recordFailure(e);
+            return fallback;
+        }
+    }
+
+    boolean runRemote(Runnable operation) {
+        return callRemote(() -> {
+            operation.run();
+            return Boolean.TRUE;
+        }, Boolean.FALSE);
+    }
+
+    /**
+     * Evicts keys from several caches at once: L1 immediately, Redis deletes and peer invalidations
+     * in one pipelined round trip. Inside a transaction this is repeated after commit.
+     */
+    public void evictAll(Map<String, ? extends Collection<?>> keysByCache) {
+        TwoLevelCache.runNowAndAfterCommit(() -> {
+            List<String> redisKeys = new ArrayList<>();
+            List<String> messages = new ArrayList<>();
+            keysByCache.forEach((cacheName, keys) -> {
+                TwoLevelCache cache = (TwoLevelCache) getCache(cacheName);
+                if (cache == null) {
+                    return;
+                }
+                String prefix = redisKeyPrefix(cache);
+                for (Object key : keys) {
+                    String localKey = TwoLevelCache.localKey(key);
+                    cache.evictLocal(localKey);
+                    messages.add(instanceId + "\n" + cacheName + "\n" + localKey);
+                    if (prefix != null) {
+                        redisKeys.add(prefix + localKey);
+                    } else if (!runRemote(() -> cache.getRemote().evict(key))) {
+                        deferEviction(cacheName, key);
+                    }
+                }
+            });
+
+            if (messages.isEmpty()) {
+                return;
+            }
+            if (!runRemote(() -> bulkOperations.unlinkAndPublish(redisKeys, INVALIDATION_CHANNEL, messages))) {
+                keysByCache.forEach((cacheName, keys) -> {
+                    if (caches.containsKey(cacheName)) {
+                        keys.forEach(key -> deferEviction(cacheName, key));
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Removes every Redis key of the cache with SCAN + UNLINK; caches not backed by Redis fall back to clear().
+     */
+    long unlinkRemote(String cacheName, Cache remote) {
+        if (remote instanceof RedisCache redisCache) {
+            return bulkOperations.unlinkByPrefix(redisCache.getCacheConfiguration().getKeyPrefixFor(cacheName));
+        }
+        remote.clear();
+        return 0;
+    }
+
+    /**
+     * Removes a tenant from the registered in-process tenant caches on all instances.
+     */
+    public void purgeTenant(long tenantId) {
+        tenantPurgeListeners.forEach(listener -> listener.accept(tenantId));
+        runRemote(() -> redisTemplate.convertAndSend(TENANT_PURGE_CHANNEL, instanceId + "\n" + tenantId));
+        log.info("Tenant purged from caches: tenantId={}", tenantId);
+    }
+
+    public void addTenantPurgeListener(LongConsumer listener) {
+        tenantPurgeListeners.add(listener);
+    }
+
+    /**
+     * Called with the cache name and key (null for a clear) of every eviction received from another instance.
+     */
+    public void addPeerEvictionListener(BiConsumer<String, String> listener) {
+        peerEvictionListeners.add(listener);
+    }
+
+    /**
+     * Publishes an eviction of a cache this manager does not hold (an in-process cache) to the peer
+     * eviction listeners of the other instances. Inside a transaction it is published again after commit.
+     * While Redis is unavailable it is queued and published once Redis is back.
+     */
+    public void broadcastEviction(String cacheName, String key) {
+        TwoLevelCache.runNowAndAfterCommit(() -> {
+            if (!publish(instanceId + "\n" + cacheName + "\n" + key)) {
+                deferBroadcast(cacheName, key);
+            }
+        });
+    }
+
+    /**
+     * Replays what missed Redis even when no cache call comes along to do it.
+     */
+    @Scheduled(
+            initialDelayString = "${auth.cache.redis.replay-interval-ms:5000}",
+            fixedDelayString = "${auth.cache.redis.replay-interval-ms:5000}"
+    )
+    public void replayPending() {
+        if (!pendingEvictions.isEmpty() || !overflowedCaches.isEmpty() || !pendingBroadcasts.isEmpty()) {
+            runRemote(() -> {
+            });
+        }
+    }
+
+    /**
+     * How long the loader took for the entry, as recorded by whichever instance ran it; 0 when unknown.
+     */
+    long remoteLoadNanos(TwoLevelCache cache, String localKey) {
+        String prefix = redisKeyPrefix(cache);
+        if (prefix == null) {
+            return 0;
+        }
+        String value = callRemote(() -> redisTemplate.opsForValue().get(prefix + localKey + LOAD_NANOS_SUFFIX), null);
+        return value != null ? Long.parseLong(value) : 0;
+    }
+
+    /**
+     * Records the loader duration next to the entry, expiring with it; a cache clear removes it too.
+     */
+    void recordLoadNanos(TwoLevelCache cache, String localKey, long loadNanos) {
+        if (!(cache.getRemote() instanceof RedisCache redisCache)) {
+            return;
+        }
+        String key = redisCache.getCacheConfiguration().getKeyPrefixFor(cache.getName()) + localKey + LOAD_NANOS_SUFFIX;
+        Duration ttl = redisCache.getCacheConfiguration().getTtlFunction().getTimeToLive(localKey, null);
+        runRemote(() -> {
+            if (ttl.isZero() || ttl.isNegative()) {
+                redisTemplate.opsForValue().set(key, String.valueOf(loadNanos));
+            } else {
+                redisTemplate.opsForValue().set(key, String.valueOf(loadNanos), ttl);
+            }
+        });
+    }
+
+    /**
+     * Redis keys are the cache prefix plus the key's string form, which holds for the String, number
+     * and {@code SimpleKey} keys used here (RedisCache converts them with toString()).
+     */
+    private String redisKeyPrefix(TwoLevelCache cache) {
+        return cache.getRemote() instanceof RedisCache redisCache
+                ? redisCache.getCacheConfiguration().getKeyPrefixFor(cache.getName())
+                : null;
+    }
+
+    void deferEviction(String cacheName, Object key) {
+        if (key == null || pendingEvictions.size() >= maxPendingEvictions) {
+            overflowedCaches.add(cacheName);
+            return;
+        }
+        pendingEvictions.add(new PendingEviction(cacheName, key));
+    }
+
+    private void deferBroadcast(String cacheName, String key) {
+        if (pendingBroadcasts.size() >= maxPendingEvictions) {
+            pendingBroadcasts.removeIf(pending -> pending.cacheName().equals(cacheName));
+            pendingBroadcasts.add(new PendingEviction(cacheName, null));
+            return;
+        }
+        pendingBroadcasts.add(new PendingEviction(cacheName, key));
+    }
+
+    /**
+     * Throws on the first Redis failure; whatever was not replayed stays pending for the next call.
+     */
+    private void replayPendingEvictions() {
+        int replayed = 0;
+        for (String cacheName : Set.copyOf(overflowedCaches)) {
+            Cache remote = remoteCacheManager.getCache(cacheName);
+            if (remote != null) {
+                unlinkRemote(cacheName, remote);
+            }
+            overflowedCaches.remove(cacheName);
+            pendingEvictions.removeIf(pending -> pending.cacheName().equals(cacheName));
+            replayed++;
+        }
+        for (PendingEviction pending : Set.copyOf(pendingEvictions)) {
+            Cache remote = remoteCacheManager.getCache(pending.cacheName());
+            if (remote != null) {
+                remote.evict(pending.key());
+            }
+            pendingEvictions.remove(pending);
+            replayed++;
+        }
+        for (PendingEviction pending : Set.copyOf(pendingBroadcasts)) {
+            String message = instanceId + "\n" + pending.cacheName() + (pending.key() != null ? "\n" + pending.key() : "");
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+            pendingBroadcasts.remove(pending);
+            replayed++;
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} cache evictions that missed Redis", replayed);
+        }
+    }
+
+    void publishEvict(String cacheName, String key) {
+        publish(instanceId + "\n" + cacheName + "\n" + key);
+    }
+
+    void publishClear(String cacheName) {
+        publish(instanceId + "\n" + cacheName);
+    }
+
+    private boolean publish(String message) {
+        // Other instances fall back to the L1 TTL when this does not go through
+        return runRemote(() -> redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 2 || instanceId.equals(parts[0])) {
+            return;
+        }
+
+        if (TENANT_PURGE_CHANNEL.equals(new String(message.getChannel(), StandardCharsets.UTF_8))) {
+            long tenantId = Long.parseLong(parts[1]);
+            tenantPurgeListeners.forEach(listener -> listener.accept(tenantId));
+            return;
+        }
+
+        String key = parts.length == 3 ? parts[2] : null;
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            if (key != null) {
+                cache.evictLocal(key);
+            } else {
+                cache.clearLocal();
+            }
+        }
+        peerEvictionListeners.forEach(listener -> listener.accept(parts[1], key));
+    }
+
+    private record PendingEviction(String cacheName, Object key) {
+    }
+}
@@ -1,6 +1,24 @@
 package com.crm.AuthService.config;
 
+import com.crm.AuthService.cache.CacheRefreshPolicy;
+import com.crm.AuthService.cache.CompactCacheSerializer;
+import com.crm.AuthService.cache.LocalCacheSettings;
+import com.crm.AuthService.cache.RedisCircuitBreaker;
+import com.crm.AuthService.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
@@ -11,37 +29,120 @@ import org.springframework.context.annotation.Configuration;
 
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+
+    // Caches stored with CompactCacheSerializer; enable only once every instance runs a build that can read it
+    @Value("${auth.cache.codec.compact-caches:}")
+    private Set<String> compactCaches;
+
 
     @Bean
     public RedisCacheConfiguration cacheConfiguration() {
         return RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))
                 .disableCachingNullValues()
-                .serializeValuesWith(SerializationPair.fromSerializer(
-                        new GenericJackson2JsonRedisSerializer()
-                ));
+                .serializeValuesWith(SerializationPair.fromSerializer(jsonSerializer));
     }
 
 
     @Bean
     public RedisCacheManagerBuilderCustomizer redisCacheManagerBuilderCustomizer() {
         return (builder) -> builder
-                .withCacheConfiguration("userPermissions",
-                        cacheConfiguration().entryTtl(Duration.ofMinutes(30)))
-                .withCacheConfiguration("permissionChecks",
-                        cacheConfiguration().entryTtl(Duration.ofHours(1)))
                 .withCacheConfiguration("roles",
-                        cacheConfiguration().entryTtl(Duration.ofHours(1)))
+                        cacheConfiguration("roles").entryTtl(Duration.ofHours(1)))
                 .withCacheConfiguration("allRoles",
-                        cacheConfiguration().entryTtl(Duration.ofHours(1)))
+                        cacheConfiguration("allRoles").entryTtl(Duration.ofHours(1)))
                 .withCacheConfiguration("tenants",
-                        cacheConfiguration().entryTtl(Duration.ofMinutes(60)));
+                        cacheConfiguration("tenants").entryTtl(Duration.ofMinutes(60)));
+
+
+    }
+
+    private RedisCacheConfiguration cacheConfiguration(String cacheName) {
+        RedisCacheConfiguration configuration = cacheConfiguration();
+        if (compactCaches.contains(cacheName)) {
+            configuration = configuration.serializeValuesWith(SerializationPair.fromSerializer(
+                    new CompactCacheSerializer(jsonSerializer)));
+        }
+        return configuration;
+    }
+
+    /**
+     * Redis stays the shared L2; each instance keeps a short-lived Caffeine L1 in front of it,
+     * invalidated across instances over Redis pub/sub.
+     */
+    @Bean
+    @Primary
+    public TwoLevelCacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            Environment environment,
+            RedisCircuitBreaker redisCircuitBreaker,
+            @Value("${auth.cache.l1.max-size:1000}") long l1MaxSize,
+            @Value("${auth.cache.l1.ttl-seconds:60}") long l1TtlSeconds,
+            @Value("${auth.cache.redis.max-pending-evictions:10000}") int maxPendingEvictions,
+            @Value("${auth.cache.redis.scan-batch-size:1000}") int scanBatchSize
+    ) {
+        // Clears go through SCAN + UNLINK in TwoLevelCacheManager; the writer is set to SCAN as well so
+        // no code path can fall back to a blocking KEYS
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager
+                .builder(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(scanBatchSize)))
+                .cacheDefaults(cacheConfiguration());
+        redisCacheManagerBuilderCustomizer().customize(builder);
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.initializeCaches();
 
+        LocalCacheSettings localSettings = LocalCacheSettings.builder()
+                .maxSize(l1MaxSize)
+                .ttl(Duration.ofSeconds(l1TtlSeconds))
+                .refreshPolicies(cacheName -> refreshPolicy(environment, cacheName))
+                .build();
 
+        return new TwoLevelCacheManager(redisCacheManager, redisTemplate, meterRegistry, localSettings,
+                redisCircuitBreaker, maxPendingEvictions, scanBatchSize);
+    }
+
+    @Bean
+    public RedisCircuitBreaker redisCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${auth.cache.redis.failure-threshold:5}") int failureThreshold,
+            @Value("${auth.cache.redis.open-duration-ms:10000}") long openDurationMs
+    ) {
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(failureThreshold, Duration.ofMillis(openDurationMs));
+        Gauge.builder("auth.cache.redis.breaker.state", breaker, b -> b.getState().ordinal())
+                .description("Redis breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        return breaker;
+    }
+
+    /**
+     * Read from {@code auth.cache.refresh.<cacheName>.*}; caches without settings keep plain expiry.
+     */
+    private static CacheRefreshPolicy refreshPolicy(Environment environment, String cacheName) {
+        String prefix = "auth.cache.refresh." + cacheName + ".";
+        long staleSeconds = environment.getProperty(prefix + "stale-while-revalidate-seconds", Long.class, 0L);
+        double beta = environment.getProperty(prefix + "beta", Double.class, 0.0);
+        return new CacheRefreshPolicy(Duration.ofSeconds(staleSeconds), beta);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            TwoLevelCacheManager cacheManager
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, List.of(
+                new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL),
+                new ChannelTopic(TwoLevelCacheManager.TENANT_PURGE_CHANNEL)));
+        return container;
     }
-}
\ No newline at end of file
+}
@@ -2,7 +2,7 @@ package com.crm.AuthService.config;
 
 import com.crm.AuthService.auth.dtos.TenantRegistrationRequest;
 import com.crm.AuthService.auth.services.TenantRegistrationService;
-import com.crm.AuthService.tenant.repository.TenantRepository;
+import com.crm.AuthService.tenant.services.TenantDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,7 +21,7 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class DatabaseInitializer {
 
-    private final TenantRepository tenantRepository;
+    private final TenantDirectory tenantDirectory;
     private final TenantRegistrationService tenantRegistrationService;
 
     @Value("${app.super-admin.email}")
@@ -70,7 +70,7 @@ public class DatabaseInitializer {
     }
 
     private void bootstrapMasterTenant() {
-        if (tenantRepository.findBySubdomain(MASTER_TENANT_SUBDOMAIN).isPresent()) {
+        if (tenantDirectory.findBySubdomain(MASTER_TENANT_SUBDOMAIN).isPresent()) {
             log.info("✓ Master tenant '{}' already exists. Skipping bootstrap.", MASTER_TENANT_SUBDOMAIN);
             return;
         }
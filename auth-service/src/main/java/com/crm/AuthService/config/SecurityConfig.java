@@ -2,8 +2,12 @@ package com.crm.AuthService.config;
 
 import com.crm.AuthService.security.CustomUserDetailsService;
 import com.crm.AuthService.security.JwtAuthenticationFilter;
+import com.crm.AuthService.security.OffloadingPasswordEncoder;
+import com.crm.AuthService.security.PasswordHashingExecutor;
+import com.crm.AuthService.security.PasswordRehashService;
 import com.crm.AuthService.security.TenantResolutionFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -41,6 +45,11 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final TenantResolutionFilter tenantResolutionFilter;
     private final CustomUserDetailsService userDetailsService;
+    private final PasswordRehashService passwordRehashService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    @Value("${auth.password-hashing.bcrypt-strength:12}")
+    private int bcryptStrength;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -54,6 +63,9 @@ public class SecurityConfig {
                                 "/api/v1/auth/refresh",
                                 "/api/v1/auth/health",
                                 "/api/v1/auth/provision-status/**",
+                                "/api/v1/auth/denylist/**",
+                                "/api/v1/permissions/catalog",
+                                "/api/v1/tenants/status-snapshot",
                                 "/actuator/**",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**"
@@ -78,6 +90,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Hashes weaker than the configured cost are replaced on the next successful login
+        authProvider.setUserDetailsPasswordService(passwordRehashService);
         return authProvider;
     }
 
@@ -88,7 +102,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        return new OffloadingPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), passwordHashingExecutor);
     }
 
     @Bean
@@ -0,0 +1,148 @@
+package com.crm.AuthService.config;
+
+import com.crm.AuthService.role.controllers.RoleController;
+import com.crm.AuthService.role.dtos.RoleResponse;
+import com.crm.AuthService.role.entities.Role;
+import com.crm.AuthService.role.repositories.RoleRepository;
+import com.crm.AuthService.role.services.PermissionBits;
+import com.crm.AuthService.role.services.PermissionRegistry;
+import com.crm.AuthService.role.services.PermissionService;
+import com.crm.AuthService.role.services.RoleService;
+import com.crm.AuthService.security.JwtService;
+import com.crm.AuthService.security.TenantContextHolder;
+import com.crm.AuthService.tenant.services.TenantDirectory;
+import com.crm.AuthService.tenant.services.TenantEntry;
+import com.crm.AuthService.user.entities.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Warms caches and hot code paths after {@link DatabaseInitializer}, before the instance takes traffic.
+ * <p>
+ * Runs synchronously inside the ready event: Spring Boot only reports the readiness state
+ * {@code ACCEPTING_TRAFFIC} once every {@link ApplicationReadyEvent} listener has returned, so the
+ * readiness probe stays down until warm-up ends or its time budget is spent. Failures are logged and
+ * never prevent startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupWarmup {
+
+    private static final String MASTER_TENANT_SUBDOMAIN = "admin";
+    private static final String SUPER_ADMIN_ROLE = "ROLE_SUPER_ADMIN";
+
+    private final TenantDirectory tenantDirectory;
+    private final PermissionRegistry permissionRegistry;
+    private final PermissionService permissionService;
+    private final RoleRepository roleRepository;
+    private final RoleService roleService;
+    private final RoleController roleController;
+    private final JwtService jwtService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${auth.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${auth.warmup.budget-ms:20000}")
+    private long budgetMs;
+
+    @Value("${auth.warmup.iterations:5000}")
+    private int iterations;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(2)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        long startedAt = System.currentTimeMillis();
+        long deadline = startedAt + budgetMs;
+
+        try {
+            preloadCaches();
+            int completed = exerciseHotPaths(deadline);
+            log.info("Warm-up completed: iterations={}, took={}ms", completed, System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            log.warn("Warm-up aborted after {}ms: {}", System.currentTimeMillis() - startedAt, e.getMessage());
+        }
+    }
+
+    private void preloadCaches() {
+        tenantDirectory.reload();
+        permissionRegistry.current();
+
+        // Through the service proxies so the Redis and L1 role caches are filled
+        for (RoleResponse role : roleService.getAllRoles()) {
+            roleService.getRoleById(role.getId());
+        }
+    }
+
+    /**
+     * Issues and verifies tokens and runs permission checks, including one through
+     * {@code PermissionAspect}, as a synthetic user holding every non-super-admin role.
+     */
+    private int exerciseHotPaths(long deadline) {
+        TenantEntry tenant = tenantDirectory.findBySubdomain(MASTER_TENANT_SUBDOMAIN).orElse(null);
+        if (tenant == null) {
+            log.warn("Warm-up skipped token checks: master tenant not found");
+            return 0;
+        }
+
+        Set<Role> roles = roleRepository.findAll().stream()
+                .filter(role -> !SUPER_ADMIN_ROLE.equals(role.getName()))
+                .collect(Collectors.toSet());
+        User user = User.builder()
+                .id(0L)
+                .email("warmup@" + tenant.getSubdomain())
+                .roles(roles)
+                .roleNames(roles.stream().map(Role::getName).collect(Collectors.toSet()))
+                .build();
+        user.setTenantId(tenant.getId());
+
+        PermissionRegistry.Snapshot registry = permissionRegistry.current();
+        PermissionBits granted = registry.effectivePermissions(roles);
+        List<String[]> grantedPermissions = registry.catalog().stream()
+                .map(key -> key.split(":", 2))
+                .filter(parts -> granted.contains(registry.ordinalOf(parts[0], parts[1])))
+                .toList();
+        boolean canReadRoles = granted.contains(registry.ordinalOf("ROLE", "READ"));
+
+        TenantContextHolder.setTenantId(tenant.getId());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        try {
+            int completed = 0;
+            while (completed < iterations && System.currentTimeMillis() < deadline) {
+                jwtService.verify(jwtService.generateToken(user, tenant.getId()));
+                for (String[] permission : grantedPermissions) {
+                    permissionService.hasPermission(permission[0], permission[1]);
+                }
+                if (canReadRoles) {
+                    roleController.getAllRoles();
+                }
+                completed++;
+            }
+            return completed;
+        } finally {
+            SecurityContextHolder.clearContext();
+            TenantContextHolder.clear();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.crm.AuthService.role.controllers;
 import com.crm.AuthService.role.dtos.PermissionDto;
 import com.crm.AuthService.role.entities.Permission;
 import com.crm.AuthService.role.repositories.PermissionRepository;
+import com.crm.AuthService.role.services.PermissionRegistry;
 import com.crm.AuthService.annotations.RequirePermission;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -19,6 +21,7 @@ import java.util.stream.Collectors;
 public class PermissionController {
 
     private final PermissionRepository permissionRepository;
+    private final PermissionRegistry permissionRegistry;
 
     @GetMapping
     @RequirePermission(resource = "PERMISSION", action = "READ")
@@ -35,4 +38,16 @@ public class PermissionController {
 
         return ResponseEntity.ok(permissionDtos);
     }
-}
\ No newline at end of file
+
+    /**
+     * Ordinal order of the permission bitmask carried in tokens; public so other services can decode it.
+     */
+    @GetMapping("/catalog")
+    public ResponseEntity<Map<String, Object>> getCatalog() {
+        PermissionRegistry.Snapshot registry = permissionRegistry.current();
+        return ResponseEntity.ok(Map.of(
+                "version", registry.catalogVersion(),
+                "permissions", registry.catalog()
+        ));
+    }
+}
@@ -2,6 +2,8 @@ package com.crm.AuthService.role.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDateTime;
@@ -17,6 +19,8 @@ import java.util.Set;
                 @UniqueConstraint(columnNames = {"resource", "action"})
         }
 )
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Permission.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,6 +28,8 @@ import java.util.Set;
 @Builder
 public class Permission {
 
+    public static final String CACHE_REGION = "auth-permissions";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)  // Use IDENTITY (not AUTO)
     private Long id;
@@ -3,6 +3,10 @@ package com.crm.AuthService.role.entities;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -12,9 +16,12 @@ import java.util.Set;
  * Role entity - SIMPLIFIED VERSION.
  * Roles are GLOBAL across all tenants.
  * Removed bidirectional User relationship to avoid complexity.
+ * Held in the Hibernate second-level cache together with its permission collection.
  */
 @Entity
 @Table(name = "roles", schema = "public")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Role.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,6 +29,9 @@ import java.util.Set;
 @Builder
 public class Role {
 
+    public static final String CACHE_REGION = "auth-roles";
+    public static final String PERMISSIONS_CACHE_REGION = "auth-role-permissions";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -39,7 +49,10 @@ public class Role {
     /**
      * Permissions assigned to this role.
      */
+    // Loaded by a separate select so it can be served from the collection cache instead of being joined
     @ManyToMany(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SELECT)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Role.PERMISSIONS_CACHE_REGION)
     @JoinTable(
             name = "role_permissions",
             schema = "public",
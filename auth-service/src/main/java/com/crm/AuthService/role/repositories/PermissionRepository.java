@@ -1,11 +1,15 @@
 package com.crm.AuthService.role.repositories;
 
 import com.crm.AuthService.role.entities.Permission;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface PermissionRepository extends JpaRepository<Permission, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Permission> findByResourceAndAction(String resource, String action);
 }
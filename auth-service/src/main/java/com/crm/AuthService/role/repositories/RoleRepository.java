@@ -1,15 +1,24 @@
 package com.crm.AuthService.role.repositories;
 
 import com.crm.AuthService.role.entities.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 
 import java.util.Optional;
 import java.util.Set;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
+
+    // Results are cached in the query cache; any write to the roles table invalidates them
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByName(String name);
+
     Optional<Role> findByNameAndIsSystemRole(String name, boolean isSystemRole);
     long countByIdIn(Set<Long> roleIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Set<Role> findAllByNameIn(Set<String> roleNames);
 }
@@ -0,0 +1,95 @@
+package com.crm.AuthService.role.services;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Immutable bitset of permission ordinals assigned by {@link PermissionRegistry}.
+ */
+public final class PermissionBits {
+
+    public static final PermissionBits EMPTY = new PermissionBits(new long[0]);
+
+    private final long[] words;
+
+    private PermissionBits(long[] words) {
+        this.words = words;
+    }
+
+    public static PermissionBits of(int... ordinals) {
+        int max = -1;
+        for (int ordinal : ordinals) {
+            max = Math.max(max, ordinal);
+        }
+        long[] words = new long[(max >> 6) + 1];
+        for (int ordinal : ordinals) {
+            words[ordinal >> 6] |= 1L << ordinal;
+        }
+        return new PermissionBits(words);
+    }
+
+    public boolean contains(int ordinal) {
+        int word = ordinal >> 6;
+        return ordinal >= 0 && word < words.length && (words[word] & (1L << ordinal)) != 0;
+    }
+
+    public PermissionBits or(PermissionBits other) {
+        if (other.words.length == 0) {
+            return this;
+        }
+        if (words.length == 0) {
+            return other;
+        }
+        long[] longer = words.length >= other.words.length ? words : other.words;
+        long[] shorter = longer == words ? other.words : words;
+        long[] result = longer.clone();
+        for (int i = 0; i < shorter.length; i++) {
+            result[i] |= shorter[i];
+        }
+        return new PermissionBits(result);
+    }
+
+    /**
+     * Compact token encoding: the bits as little-endian bytes, trailing zero bytes dropped, base64url without padding.
+     */
+    public String toBase64Url() {
+        long[] trimmed = trimmed(words);
+        byte[] bytes = new byte[trimmed.length * Long.BYTES];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (trimmed[i >> 3] >>> ((i & 7) << 3));
+        }
+        int length = bytes.length;
+        while (length > 0 && bytes[length - 1] == 0) {
+            length--;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(bytes, length));
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PermissionBits)) return false;
+        return Arrays.equals(trimmed(words), trimmed(((PermissionBits) o).words));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(trimmed(words));
+    }
+
+    private static long[] trimmed(long[] words) {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return length == words.length ? words : Arrays.copyOf(words, length);
+    }
+}
@@ -0,0 +1,275 @@
+package com.crm.AuthService.role.services;
+
+import com.crm.AuthService.role.entities.Permission;
+import com.crm.AuthService.role.entities.Role;
+import com.crm.AuthService.role.repositories.PermissionRepository;
+import com.crm.AuthService.role.repositories.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles the permission catalog into dense ordinals and every role into an immutable {@link PermissionBits}.
+ * <p>
+ * Ordinals are assigned in sorted (resource, action) order, so every instance loading the same
+ * catalog agrees on them. The compiled {@link Snapshot} is replaced as a whole, never mutated.
+ * <p>
+ * Effective permissions are memoized per snapshot by role-set fingerprint (the sorted role ids),
+ * so every user holding the same combination of roles shares one bitset. A rebuild starts a new,
+ * empty memo, so no invalidation is needed.
+ * <p>
+ * The instance handling a role write rebuilds after commit; the others rebuild when its cache
+ * eviction reaches them, and on a fixed delay in case that message was lost.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionRegistry {
+
+    private final PermissionRepository permissionRepository;
+    private final RoleRepository roleRepository;
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        rebuild();
+    }
+
+    /**
+     * Returns the compiled snapshot, building it on first use.
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    public synchronized Snapshot rebuild() {
+        Snapshot rebuilt = Snapshot.build(permissionRepository.findAll(), roleRepository.findAll());
+        snapshot = rebuilt;
+        log.info("Permission registry rebuilt: permissions={}, roles={}", rebuilt.size(), rebuilt.roleBits.size());
+        return rebuilt;
+    }
+
+    /**
+     * Rebuilds, keeping the current snapshot when the database cannot be read.
+     */
+    @Scheduled(
+            initialDelayString = "${auth.security.permission-registry.refresh-interval-ms:60000}",
+            fixedDelayString = "${auth.security.permission-registry.refresh-interval-ms:60000}"
+    )
+    public void refresh() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Failed to rebuild permission registry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds once the current transaction has committed, so the new role permissions are visible.
+     */
+    public void rebuildAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    public static final class Snapshot {
+
+        // Distinct role combinations are few; the bound only guards against pathological data
+        private static final int MAX_FINGERPRINTS = 4096;
+
+        private final Map<String, Integer> ordinals;
+        private final List<String> catalog;
+        private final String catalogVersion;
+        private final Map<Long, PermissionBits> roleBits;
+        private final Map<RoleSetFingerprint, PermissionBits> effectiveByFingerprint = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<String, Integer> ordinals, List<String> catalog, Map<Long, PermissionBits> roleBits) {
+            this.ordinals = ordinals;
+            this.catalog = catalog;
+            this.catalogVersion = versionOf(catalog);
+            this.roleBits = roleBits;
+        }
+
+        public static Snapshot build(Collection<Permission> permissions, Collection<Role> roles) {
+            TreeSet<String> keys = new TreeSet<>();
+            for (Permission permission : permissions) {
+                keys.add(key(permission.getResource(), permission.getAction()));
+            }
+
+            Map<String, Integer> ordinals = new HashMap<>(keys.size() * 2);
+            int next = 0;
+            for (String key : keys) {
+                ordinals.put(key, next++);
+            }
+
+            Map<Long, PermissionBits> roleBits = new HashMap<>(roles.size() * 2);
+            for (Role role : roles) {
+                roleBits.put(role.getId(), compile(ordinals, role));
+            }
+
+            return new Snapshot(Map.copyOf(ordinals), List.copyOf(keys), Map.copyOf(roleBits));
+        }
+
+        /**
+         * Ordinal of the (resource, action) pair, case-insensitive; -1 when it is not in the catalog.
+         */
+        public int ordinalOf(String resource, String action) {
+            return ordinals.getOrDefault(key(resource, action), -1);
+        }
+
+        public PermissionBits bitsOf(Role role) {
+            PermissionBits bits = role.getId() != null ? roleBits.get(role.getId()) : null;
+            // A role saved after this snapshot was built is compiled from its own permissions
+            return bits != null ? bits : compile(ordinals, role);
+        }
+
+        /**
+         * Effective permissions of a set of roles: the OR of their bitsets, shared by every caller
+         * presenting the same role ids.
+         */
+        public PermissionBits effectivePermissions(Collection<Role> roles) {
+            RoleSetFingerprint fingerprint = fingerprintOf(roles);
+            if (fingerprint == null) {
+                return combine(roles);
+            }
+
+            PermissionBits cached = effectiveByFingerprint.get(fingerprint);
+            if (cached != null) {
+                return cached;
+            }
+
+            PermissionBits effective = combine(roles);
+            if (effectiveByFingerprint.size() < MAX_FINGERPRINTS) {
+                effectiveByFingerprint.putIfAbsent(fingerprint, effective);
+            }
+            return effective;
+        }
+
+        /**
+         * Null when a role is unknown to this snapshot; its bits then depend on the entity, not only on its id.
+         */
+        private RoleSetFingerprint fingerprintOf(Collection<Role> roles) {
+            if (roles == null || roles.isEmpty()) {
+                return RoleSetFingerprint.EMPTY;
+            }
+            long[] ids = new long[roles.size()];
+            int i = 0;
+            for (Role role : roles) {
+                if (role.getId() == null || !roleBits.containsKey(role.getId())) {
+                    return null;
+                }
+                ids[i++] = role.getId();
+            }
+            Arrays.sort(ids);
+            return new RoleSetFingerprint(ids);
+        }
+
+        private PermissionBits combine(Collection<Role> roles) {
+            PermissionBits effective = PermissionBits.EMPTY;
+            if (roles != null) {
+                for (Role role : roles) {
+                    effective = effective.or(bitsOf(role));
+                }
+            }
+            return effective;
+        }
+
+        public int size() {
+            return ordinals.size();
+        }
+
+        /**
+         * The catalog in ordinal order, as "resource:action" in lower case.
+         */
+        public List<String> catalog() {
+            return catalog;
+        }
+
+        /**
+         * Identifies the ordinal assignment; two instances with the same catalog report the same version.
+         */
+        public String catalogVersion() {
+            return catalogVersion;
+        }
+
+        private static String versionOf(List<String> catalog) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256")
+                        .digest(String.join("\n", catalog).getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(hash, 0, 8);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        private static PermissionBits compile(Map<String, Integer> ordinals, Role role) {
+            if (role.getPermissions() == null || role.getPermissions().isEmpty()) {
+                return PermissionBits.EMPTY;
+            }
+            return PermissionBits.of(role.getPermissions().stream()
+                    .map(permission -> ordinals.get(key(permission.getResource(), permission.getAction())))
+                    .filter(Objects::nonNull)
+                    .mapToInt(Integer::intValue)
+                    .toArray());
+        }
+
+        private static String key(String resource, String action) {
+            return resource.toLowerCase(Locale.ROOT) + ':' + action.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Sorted role ids identifying a role combination.
+     */
+    private static final class RoleSetFingerprint {
+
+        static final RoleSetFingerprint EMPTY = new RoleSetFingerprint(new long[0]);
+
+        private final long[] roleIds;
+        private final int hash;
+
+        RoleSetFingerprint(long[] roleIds) {
+            this.roleIds = roleIds;
+            this.hash = Arrays.hashCode(roleIds);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RoleSetFingerprint other && Arrays.equals(roleIds, other.roleIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
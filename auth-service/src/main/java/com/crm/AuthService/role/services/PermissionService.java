@@ -4,7 +4,6 @@ import com.crm.AuthService.role.entities.Permission;
 import com.crm.AuthService.user.entities.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -22,6 +21,8 @@ public class PermissionService {
 
     private static final String SUPER_ADMIN_ROLE = "ROLE_SUPER_ADMIN";
 
+    private final PermissionRegistry permissionRegistry;
+
     public boolean hasPermission(String resource, String action) {
         User user = getCurrentUser();
         if (user == null) {
@@ -38,13 +39,11 @@ public class PermissionService {
             return true;
         }
 
-        Set<Permission> permissions = getUserPermissions(user);
-
-        boolean hasPermission = permissions.stream()
-                .anyMatch(p ->
-                        p.getResource().equalsIgnoreCase(resource) &&
-                                p.getAction().equalsIgnoreCase(action)
-                );
+        // Single bit test against the OR of the user's compiled role bitsets
+        PermissionRegistry.Snapshot registry = permissionRegistry.current();
+        int ordinal = registry.ordinalOf(resource, action);
+        boolean hasPermission = ordinal >= 0
+                && registry.effectivePermissions(user.getRoles()).contains(ordinal);
 
         if (hasPermission) {
             log.debug("Permission granted: user={}, permission={}:{}",
@@ -78,8 +77,8 @@ public class PermissionService {
 
     /**
      * UPDATED: Extract permissions from Role entities.
+     * Permission checks do not use this; they test the role-set bitset from {@link PermissionRegistry}.
      */
-    @Cacheable(value = "userPermissions", key = "#user.id")
     public Set<Permission> getUserPermissions(User user) {
         return user.getRoles().stream()
                 .flatMap(role -> role.getPermissions().stream())
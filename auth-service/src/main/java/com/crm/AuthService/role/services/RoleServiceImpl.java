@@ -1,5 +1,6 @@
 package com.crm.AuthService.role.services;
 
+import com.crm.AuthService.cache.CacheEvictionService;
 import com.crm.AuthService.exception.RoleNotFoundException;
 import com.crm.AuthService.role.dtos.*;
 import com.crm.AuthService.role.entities.Permission;
@@ -8,6 +9,7 @@ import com.crm.AuthService.role.repositories.PermissionRepository;
 import com.crm.AuthService.role.repositories.RoleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,8 +25,10 @@ public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
+    private final CacheEvictionService cacheEvictionService;
 
     @Override
+    @Cacheable(value = "allRoles", sync = true)
     @Transactional(readOnly = true)
     public List<RoleResponse> getAllRoles() {
         List<Role> roles = roleRepository.findAll();
@@ -34,6 +38,7 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
+    @Cacheable(value = "roles", key = "#id", sync = true)
     @Transactional(readOnly = true)
     public RoleResponse getRoleById(Long id) {
         Role role = roleRepository.findById(id)
@@ -60,6 +65,7 @@ public class RoleServiceImpl implements RoleService {
         role.setPermissions(permissions);
 
         Role savedRole = roleRepository.save(role);
+        cacheEvictionService.evictRoleCaches(savedRole.getId());
         log.info("Role created: id={}, name={}", savedRole.getId(), savedRole.getName());
 
         return toRoleResponse(savedRole);
@@ -91,6 +97,7 @@ public class RoleServiceImpl implements RoleService {
         }
 
         Role updatedRole = roleRepository.save(role);
+        cacheEvictionService.evictRoleCaches(updatedRole.getId());
         log.info("Role updated: id={}, name={}", updatedRole.getId(), updatedRole.getName());
 
         return toRoleResponse(updatedRole);
@@ -109,6 +116,7 @@ public class RoleServiceImpl implements RoleService {
 
 
         roleRepository.delete(role);
+        cacheEvictionService.evictRoleCaches(role.getId());
         log.info("Role deleted: id={}, name={}", role.getId(), role.getName());
     }
 
@@ -126,6 +134,7 @@ public class RoleServiceImpl implements RoleService {
 
         role.setPermissions(permissions);
         Role updatedRole = roleRepository.save(role);
+        cacheEvictionService.evictRoleCaches(updatedRole.getId());
 
         log.info("Permissions assigned to role: roleId={}, permissionCount={}",
                 updatedRole.getId(), permissions.size());
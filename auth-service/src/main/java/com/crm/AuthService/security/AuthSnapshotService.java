@@ -0,0 +1,136 @@
+package com.crm.AuthService.security;
+
+import com.crm.AuthService.role.entities.Role;
+import com.crm.AuthService.role.repositories.RoleRepository;
+import com.crm.AuthService.user.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory snapshot of the data needed to authenticate a request without touching the database:
+ * roles (with their permissions), the ids of disabled or locked users and the users
+ * modified within the lifetime of an access token.
+ * Tenants are served by {@code TenantDirectory}.
+ * Reloaded on a fixed delay; a snapshot older than the staleness window is never served.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuthSnapshotService {
+
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final JwtService jwtService;
+
+    @Value("${auth.security.stateless-principal.max-staleness-ms:30000}")
+    private long maxStalenessMs;
+
+    private volatile Snapshot snapshot;
+
+    // Users changed on this instance, by the time of the change; they are resolved from the database until
+    // a reload started after that time
+    private final Map<Long, Long> pendingUsers = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        refresh();
+    }
+
+    @Scheduled(
+            initialDelayString = "${auth.security.stateless-principal.refresh-interval-ms:10000}",
+            fixedDelayString = "${auth.security.stateless-principal.refresh-interval-ms:10000}"
+    )
+    public void refresh() {
+        try {
+            long startedAt = System.currentTimeMillis();
+
+            Map<String, Role> roles = roleRepository.findAll().stream()
+                    .collect(Collectors.toUnmodifiableMap(Role::getName, Function.identity()));
+            Set<Long> inactiveUsers = Set.copyOf(userRepository.findInactiveUserIds());
+
+            // Only changes newer than the oldest live access token can invalidate one
+            LocalDateTime since = LocalDateTime.now().minus(Duration.ofMillis(jwtService.getAccessTokenExpiration()));
+            Map<Long, Instant> changedUsers = new HashMap<>();
+            for (Object[] row : userRepository.findIdsUpdatedSince(since)) {
+                changedUsers.put((Long) row[0], ((LocalDateTime) row[1]).atZone(ZoneId.systemDefault()).toInstant());
+            }
+
+            snapshot = new Snapshot(roles, inactiveUsers, Map.copyOf(changedUsers), startedAt);
+            // Conditional on the value, so a change marked during the reload is kept
+            pendingUsers.entrySet().removeIf(pending -> pending.getValue() < startedAt);
+
+            log.debug("Auth snapshot refreshed: roles={}, inactiveUsers={}", roles.size(), inactiveUsers.size());
+        } catch (Exception e) {
+            // Keep serving the previous snapshot; current() stops it once the staleness window is exceeded
+            log.error("Failed to refresh auth snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Forces the next requests of this user through the database until the next reload. Inside a transaction
+     * the user is marked again after commit, so a reload that read the rows before the commit cannot clear it.
+     */
+    public void markUserChanged(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        pendingUsers.put(userId, System.currentTimeMillis());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pendingUsers.put(userId, System.currentTimeMillis());
+                }
+            });
+        }
+    }
+
+    public boolean isPending(Long userId) {
+        return pendingUsers.containsKey(userId);
+    }
+
+    /**
+     * Returns the current snapshot, or null when none is loaded or it is older than the staleness window.
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null || System.currentTimeMillis() - current.loadedAt() > maxStalenessMs) {
+            return null;
+        }
+        return current;
+    }
+
+    public record Snapshot(
+            Map<String, Role> rolesByName,
+            Set<Long> inactiveUserIds,
+            Map<Long, Instant> userChangedAt,
+            long loadedAt
+    ) {
+
+        /**
+         * True when the user was modified after the token was issued, so its role claims may be outdated.
+         */
+        public boolean changedSince(Long userId, Instant issuedAt) {
+            Instant changedAt = userChangedAt.get(userId);
+            return changedAt != null && (issuedAt == null || !changedAt.isBefore(issuedAt));
+        }
+    }
+}
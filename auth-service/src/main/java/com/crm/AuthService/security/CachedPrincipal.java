@@ -0,0 +1,92 @@
+package com.crm.AuthService.security;
+
+import com.crm.AuthService.role.entities.Role;
+import com.crm.AuthService.user.entities.User;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compact, immutable copy of a loaded principal held by {@link PrincipalCache}.
+ * Authorities are computed once at load time; every read hands out a fresh {@link User}
+ * so callers can never mutate the cached state. Tenant name and status are not cached here;
+ * {@link CustomUserDetailsService} fills them in from the tenant directory.
+ */
+@Getter
+public final class CachedPrincipal {
+
+    private final Long userId;
+    private final Long tenantId;
+    private final String email;
+    private final String password;
+    private final String firstName;
+    private final String lastName;
+    private final boolean enabled;
+    private final boolean accountNonExpired;
+    private final boolean accountNonLocked;
+    private final boolean credentialsNonExpired;
+    private final Set<Role> roles;
+    private final Set<String> roleNames;
+    private final Set<GrantedAuthority> authorities;
+    @Getter(AccessLevel.NONE)
+    private final long[] roleIds;
+    private final long version;
+
+    private CachedPrincipal(User user, long version) {
+        this.userId = user.getId();
+        this.tenantId = user.getTenantId();
+        this.email = user.getEmail();
+        this.password = user.getPassword();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.enabled = user.isEnabled();
+        this.accountNonExpired = user.isAccountNonExpired();
+        this.accountNonLocked = user.isAccountNonLocked();
+        this.credentialsNonExpired = user.isCredentialsNonExpired();
+        this.roles = user.getRoles() != null ? Set.copyOf(user.getRoles()) : Set.of();
+        this.roleNames = user.getRoleNames() != null ? Set.copyOf(user.getRoleNames()) : Set.of();
+        this.authorities = roleNames.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableSet());
+        this.roleIds = roles.stream()
+                .map(Role::getId)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .toArray();
+        this.version = version;
+    }
+
+    public static CachedPrincipal of(User user, long version) {
+        return new CachedPrincipal(user, version);
+    }
+
+    // Not copied: only read by PrincipalCache on the hot path
+    long[] roleIds() {
+        return roleIds;
+    }
+
+    public User toUser() {
+        User user = User.builder()
+                .id(userId)
+                .email(email)
+                .password(password)
+                .firstName(firstName)
+                .lastName(lastName)
+                .enabled(enabled)
+                .accountNonExpired(accountNonExpired)
+                .accountNonLocked(accountNonLocked)
+                .credentialsNonExpired(credentialsNonExpired)
+                .roles(new HashSet<>(roles))
+                .roleNames(new HashSet<>(roleNames))
+                .grantedAuthorities(authorities)
+                .build();
+        user.setTenantId(tenantId);
+        return user;
+    }
+}
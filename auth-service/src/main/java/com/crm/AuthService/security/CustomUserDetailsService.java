@@ -1,13 +1,10 @@
 package com.crm.AuthService.security;
 
-import com.crm.AuthService.exception.TenantNotFoundException;
 import com.crm.AuthService.role.entities.Role;
-import com.crm.AuthService.role.repositories.RoleRepository;
-import com.crm.AuthService.tenant.entities.Tenant;
-import com.crm.AuthService.tenant.repository.TenantRepository;
+import com.crm.AuthService.tenant.services.TenantDirectory;
+import com.crm.AuthService.tenant.services.TenantEntry;
 import com.crm.AuthService.user.entities.User;
 import com.crm.AuthService.user.repositories.UserRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,43 +12,46 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Loads principals through {@link PrincipalCache}; the database is only queried on a miss
+ * or after the user has been invalidated. Tenant name and status come from {@link TenantDirectory}
+ * on every call, so they are never older than the directory.
+ */
 @Service
 @RequiredArgsConstructor
 @Lazy
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
-    private final TenantRepository tenantRepository;
+    private final TenantDirectory tenantDirectory;
+    private final PrincipalCache principalCache;
 
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         Long tenantId = TenantContextHolder.getRequiredTenantId();
+        TenantEntry tenant = tenantDirectory.getRequired(tenantId);
 
+        User user = principalCache.get(tenantId, email, () -> loadFromDatabase(tenantId, email));
+        user.setTenantName(tenant.getName());
+        user.setTenantStatus(tenant.getStatus());
+        return user;
+    }
+
+    private User loadFromDatabase(Long tenantId, String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        Tenant tenant = tenantRepository.findById(tenantId)
-                .orElseThrow(() -> new TenantNotFoundException("Tenant not found: " + tenantId));
-
-        Set<String> roleNames = new HashSet<>();
-        if(user.getRoleIds() != null && !user.getRoleIds().isEmpty()) {
-            roleNames = roleRepository.findAllById(user.getRoleIds())
-                    .stream()
-                    .map(Role::getName)
-                    .collect(Collectors.toSet());
-        }
+        // Roles (and their permissions) are fetched eagerly with the user
+        Set<String> roleNames = user.getRoles().stream()
+                .map(Role::getName)
+                .collect(Collectors.toSet());
 
         user.setRoleNames(roleNames);
-        user.setTenantId(tenant.getId());
-        user.setTenantName(tenant.getName());
-        user.setTenantStatus(tenant.getStatus());
+        user.setTenantId(tenantId);
 
         return user;
     }
-}
\ No newline at end of file
+}
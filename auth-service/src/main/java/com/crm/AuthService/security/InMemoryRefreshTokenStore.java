@@ -0,0 +1,96 @@
+package com.crm.AuthService.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-instance stand-in for {@link RedisRefreshTokenStore}, for development and tests.
+ * Tokens are lost on restart and are not shared between replicas.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.refresh-tokens.store", havingValue = "memory")
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final Cache<String, RefreshTokenRecord> tokens;
+    private final Cache<String, Boolean> revokedFamilies;
+
+    public InMemoryRefreshTokenStore(
+            MeterRegistry meterRegistry,
+            @Value("${jwt.refresh-expiration}") long refreshExpirationMs,
+            @Value("${auth.refresh-tokens.memory.max-size:100000}") long maxSize
+    ) {
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpireAtRecordExpiry())
+                .recordStats()
+                .build();
+        this.revokedFamilies = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(refreshExpirationMs))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "refreshTokens");
+    }
+
+    @Override
+    public void save(String tokenHash, RefreshTokenRecord record) {
+        tokens.put(tokenHash, record);
+    }
+
+    @Override
+    public Rotation rotate(String tokenHash) {
+        Rotation[] result = new Rotation[1];
+        tokens.asMap().compute(tokenHash, (hash, record) -> {
+            if (record == null || record.isExpired(System.currentTimeMillis())) {
+                result[0] = new Rotation(Status.INVALID, null);
+                return null;
+            }
+            if (revokedFamilies.getIfPresent(record.familyId()) != null) {
+                result[0] = new Rotation(Status.REVOKED, record);
+            } else if (record.used()) {
+                revokeFamily(record.familyId());
+                result[0] = new Rotation(Status.REUSED, record);
+            } else {
+                result[0] = new Rotation(Status.ROTATED, record);
+                return record.markUsed();
+            }
+            return record;
+        });
+        return result[0];
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        revokedFamilies.put(familyId, Boolean.TRUE);
+    }
+
+    private static final class ExpireAtRecordExpiry implements Expiry<String, RefreshTokenRecord> {
+
+        @Override
+        public long expireAfterCreate(String key, RefreshTokenRecord record, long currentTime) {
+            return remainingNanos(record);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, RefreshTokenRecord record, long currentTime, long currentDuration) {
+            return remainingNanos(record);
+        }
+
+        @Override
+        public long expireAfterRead(String key, RefreshTokenRecord record, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static long remainingNanos(RefreshTokenRecord record) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, record.expiresAtMillis() - System.currentTimeMillis()));
+        }
+    }
+}
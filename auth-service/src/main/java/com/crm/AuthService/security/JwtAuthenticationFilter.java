@@ -1,5 +1,8 @@
 package com.crm.AuthService.security;
 
+import com.crm.AuthService.tenant.services.TenantDirectory;
+import com.crm.AuthService.tenant.services.TenantEntry;
+import com.crm.AuthService.user.entities.User;
 import jakarta.persistence.EntityManager;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,6 +11,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,19 +20,31 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * JWT Authentication Filter with Hibernate tenant filtering.
  * Extracts tenant ID from JWT and enables Hibernate filter for automatic tenant isolation.
+ * In stateless mode the principal is rebuilt from token claims and {@link AuthSnapshotService}
+ * instead of being loaded from the database. Tokens on the {@link TokenDenylist} and tokens of tenants that
+ * {@link TenantDirectory} no longer holds as active are left unauthenticated.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String TENANT_STATUS_ACTIVE = "ACTIVE";
+
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
     private final EntityManager entityManager;
+    private final StatelessPrincipalFactory statelessPrincipalFactory;
+    private final TokenDenylist tokenDenylist;
+    private final TenantDirectory tenantDirectory;
+
+    @Value("${auth.security.stateless-principal.enabled:false}")
+    private boolean statelessPrincipalEnabled;
 
     @Override
     protected void doFilterInternal(
@@ -46,12 +62,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
 
             final String jwt = authHeader.substring(7);
-            final String username;
-            final Long tenantId;
 
             try {
-                username = jwtService.extractUsername(jwt);
-                tenantId = jwtService.extractTenantId(jwt);
+                // Signature and expiry are checked once; every claim below comes from this object
+                VerifiedToken token = jwtService.verify(jwt);
+                final String username = isAccepted(token) ? token.getSubject() : null;
+                final Long tenantId = token.getTenantId();
 
                 // Set tenant context FIRST
                 if (tenantId != null) {
@@ -67,9 +83,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                 // Then authenticate user
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    UserDetails userDetails = resolvePrincipal(token);
 
-                    if (jwtService.isTokenValid(jwt, userDetails)) {
+                    if (jwtService.isTokenValid(token, userDetails) && isActive(userDetails)) {
                         UsernamePasswordAuthenticationToken authToken =
                                 new UsernamePasswordAuthenticationToken(
                                         userDetails,
@@ -84,7 +100,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         SecurityContextHolder.getContext().setAuthentication(authToken);
                         log.debug("User authenticated: username={}, tenantId={}", username, tenantId);
                     } else {
-                        log.warn("Invalid JWT token for user: {}", username);
+                        log.warn("Invalid JWT token or inactive account for user: {}", username);
                     }
                 }
 
@@ -100,4 +116,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             log.trace("Tenant context cleared after request");
         }
     }
-}
\ No newline at end of file
+
+    // Both checks are in memory: a Bloom probe (only hits reach the denylist store) and a directory lookup
+    private boolean isAccepted(VerifiedToken token) {
+        if (tokenDenylist.isRevoked(token)) {
+            return false;
+        }
+        if (token.getTenantId() != null
+                && !tenantDirectory.findById(token.getTenantId()).map(TenantEntry::isActive).orElse(false)) {
+            log.debug("Token of inactive tenant rejected: tenantId={}", token.getTenantId());
+            return false;
+        }
+        return true;
+    }
+
+    private UserDetails resolvePrincipal(VerifiedToken token) {
+        if (statelessPrincipalEnabled) {
+            Optional<User> principal = statelessPrincipalFactory.fromToken(token);
+            if (principal.isPresent()) {
+                return principal.get();
+            }
+            log.debug("Stateless principal unavailable, loading from database: username={}", token.getSubject());
+        }
+        return userDetailsService.loadUserByUsername(token.getSubject());
+    }
+
+    private boolean isActive(UserDetails userDetails) {
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+            return false;
+        }
+        return !(userDetails instanceof User user)
+                || user.getTenantStatus() == null
+                || TENANT_STATUS_ACTIVE.equals(user.getTenantStatus());
+    }
+}
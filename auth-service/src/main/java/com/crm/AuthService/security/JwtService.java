@@ -1,105 +1,137 @@
 package com.crm.AuthService.security;
 
+import com.crm.AuthService.role.services.PermissionRegistry;
+import com.crm.AuthService.user.entities.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import org.springframework.security.core.GrantedAuthority;
-
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    public static final String PERMISSIONS_CLAIM = "perms";
+    public static final String CATALOG_VERSION_CLAIM = "pcv";
+
+    private final PermissionRegistry permissionRegistry;
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
 
-    @Value("${jwt.refresh-expiration}")
-    private Long jwtRefreshExpiration;
+    // Embeds the effective permission bitmask so other services can authorise without calling us
+    @Value("${auth.security.permission-claims.enabled:false}")
+    private boolean permissionClaimsEnabled;
 
-    public String generateToken(UserDetails userDetails, Long tenantId) {
-        Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("tenantId", tenantId);
+    // Decoded once: both minting and verification share the same key and parser
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
 
-        List<String> roles = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList());
-        extraClaims.put("roles", roles);
+    @PostConstruct
+    void initSigningKey() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
 
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+    public String generateToken(UserDetails userDetails, Long tenantId) {
+        return buildToken(baseClaims(userDetails, tenantId), userDetails, jwtExpiration);
+    }
+
+    public long getAccessTokenExpiration() {
+        return jwtExpiration;
     }
 
-    public String generateRefreshToken(UserDetails userDetails, Long tenantId) {
+    private Map<String, Object> baseClaims(UserDetails userDetails, Long tenantId) {
         Map<String, Object> extraClaims = new HashMap<>();
         extraClaims.put("tenantId", tenantId);
+        if (userDetails instanceof User user && user.getId() != null) {
+            extraClaims.put("userId", user.getId());
+        }
 
-        // Roles also good to have in refresh, though primarily used for new access
-        // token
         List<String> roles = userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
         extraClaims.put("roles", roles);
 
-        return buildToken(extraClaims, userDetails, jwtRefreshExpiration);
+        if (permissionClaimsEnabled && userDetails instanceof User user) {
+            PermissionRegistry.Snapshot registry = permissionRegistry.current();
+            extraClaims.put(PERMISSIONS_CLAIM, registry.effectivePermissions(user.getRoles()).toBase64Url());
+            extraClaims.put(CATALOG_VERSION_CLAIM, registry.catalogVersion());
+        }
+        return extraClaims;
     }
 
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, Long expiration) {
-        SecretKey key = getSigningKey();
+        long now = System.currentTimeMillis();
 
         return Jwts.builder()
                 .claims(extraClaims)
                 .subject(userDetails.getUsername())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(key)
+                .id(UUID.randomUUID().toString())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verifies signature and expiry exactly once and returns every claim the request pipeline needs.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return VerifiedToken.builder()
+                .subject(claims.getSubject())
+                .tokenId(claims.getId())
+                .userId(claims.get("userId", Long.class))
+                .tenantId(claims.get("tenantId", Long.class))
+                .roles(extractRoles(claims))
+                .issuedAt(claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null)
+                .expiresAt(claims.getExpiration() != null ? claims.getExpiration().toInstant() : null)
+                .build();
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.getSubject() != null
+                && token.getSubject().equals(userDetails.getUsername())
+                && !token.isExpired();
     }
 
-    public Long extractTenantId(String token) {
-        return extractClaim(token, claims -> claims.get("tenantId", Long.class));
-    }
-
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
-    }
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private List<String> extractRoles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (!(roles instanceof List<?> list) || list.isEmpty()) {
+            return List.of();
+        }
+        return list.stream()
+                .map(String::valueOf)
+                .toList();
     }
 }
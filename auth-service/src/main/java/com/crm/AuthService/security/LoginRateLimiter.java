@@ -0,0 +1,214 @@
+package com.crm.AuthService.security;
+
+import com.crm.AuthService.cache.RedisCircuitBreaker;
+import com.crm.AuthService.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Throttles login attempts per (tenant, email) and per client IP before any database lookup or hashing.
+ * <p>
+ * Buckets live in {@link StripedTokenBuckets} on each instance. A successful login gives its account
+ * token back, so only failed attempts drain an account; the IP bucket is never refunded. With
+ * {@code auth.login-throttle.redis.enabled} the same limits are also counted in Redis per refill
+ * window, shared by every replica; Redis is skipped (local limits only) while the cache breaker is open.
+ */
+@Slf4j
+@Component
+public class LoginRateLimiter {
+
+    private static final String KEY_PREFIX = "auth:login-throttle:";
+
+    // Returns the attempt counts of both keys in the current window
+    @SuppressWarnings("unchecked")
+    private static final RedisScript<List<Long>> COUNT_ATTEMPTS = (RedisScript<List<Long>>) (RedisScript<?>) RedisScript.of("""
+            local counts = {}
+            for i, key in ipairs(KEYS) do
+              counts[i] = redis.call('INCR', key)
+              if counts[i] == 1 then redis.call('PEXPIRE', key, ARGV[1]) end
+            end
+            return counts
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker breaker;
+    private final boolean enabled;
+    private final boolean redisEnabled;
+    private final boolean trustForwardedFor;
+    private final int trustedProxyHops;
+
+    private final StripedTokenBuckets accountBuckets;
+    private final StripedTokenBuckets ipBuckets;
+    private final int accountCapacity;
+    private final int ipCapacity;
+    private final long refillPeriodMs;
+    // Random per instance so nobody can craft keys that land on a victim's stripes
+    private final long seed = new SecureRandom().nextLong();
+
+    private final Counter accountRejections;
+    private final Counter ipRejections;
+
+    public LoginRateLimiter(
+            MeterRegistry meterRegistry,
+            StringRedisTemplate redisTemplate,
+            RedisCircuitBreaker breaker,
+            @Value("${auth.login-throttle.enabled:true}") boolean enabled,
+            @Value("${auth.login-throttle.stripes:65536}") int stripes,
+            @Value("${auth.login-throttle.account-capacity:5}") int accountCapacity,
+            @Value("${auth.login-throttle.ip-capacity:50}") int ipCapacity,
+            @Value("${auth.login-throttle.refill-period-ms:60000}") long refillPeriodMs,
+            @Value("${auth.login-throttle.trust-forwarded-for:true}") boolean trustForwardedFor,
+            @Value("${auth.login-throttle.trusted-proxy-hops:1}") int trustedProxyHops,
+            @Value("${auth.login-throttle.redis.enabled:false}") boolean redisEnabled
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.breaker = breaker;
+        this.enabled = enabled;
+        this.redisEnabled = redisEnabled;
+        this.trustForwardedFor = trustForwardedFor;
+        this.trustedProxyHops = Math.max(1, trustedProxyHops);
+        this.accountBuckets = new StripedTokenBuckets(stripes, accountCapacity, refillPeriodMs);
+        this.ipBuckets = new StripedTokenBuckets(stripes, ipCapacity, refillPeriodMs);
+        this.accountCapacity = accountCapacity;
+        this.ipCapacity = ipCapacity;
+        this.refillPeriodMs = refillPeriodMs;
+        this.accountRejections = rejectionCounter(meterRegistry, "account");
+        this.ipRejections = rejectionCounter(meterRegistry, "ip");
+    }
+
+    /**
+     * Charges one attempt to the account and the client IP.
+     *
+     * @throws TooManyRequestsException when either of them is over its limit
+     */
+    public void checkAttempt(String tenantKey, String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        String account = accountKey(tenantKey, email);
+
+        long ipWait = ipBuckets.tryAcquire(hash(clientIp));
+        if (ipWait > 0) {
+            throw reject(ipRejections, "ip", clientIp, ipWait);
+        }
+        long accountWait = accountBuckets.tryAcquire(hash(account));
+        if (accountWait > 0) {
+            throw reject(accountRejections, "account", tenantKey, accountWait);
+        }
+
+        if (redisEnabled) {
+            checkShared(tenantKey, account, clientIp);
+        }
+    }
+
+    /**
+     * Gives the account its token back once the password has been verified.
+     */
+    public void onSuccess(String tenantKey, String email) {
+        if (!enabled) {
+            return;
+        }
+        String account = accountKey(tenantKey, email);
+        accountBuckets.refund(hash(account));
+
+        if (redisEnabled && breaker.tryAcquire()) {
+            try {
+                redisTemplate.opsForValue().decrement(KEY_PREFIX + "account:" + redisKey(account));
+                breaker.recordSuccess();
+            } catch (RuntimeException e) {
+                breaker.recordFailure(e);
+            }
+        }
+    }
+
+    /**
+     * The client address as seen by the outermost trusted proxy when forwarded headers are trusted,
+     * otherwise the peer address. Proxies append to X-Forwarded-For, so only the entries they added,
+     * counted from the right, can be trusted; anything to their left is whatever the client sent.
+     */
+    public String clientIp(String forwardedFor, String remoteAddr) {
+        if (trustForwardedFor && forwardedFor != null && !forwardedFor.isBlank()) {
+            String[] hops = forwardedFor.split(",");
+            String client = hops[Math.max(0, hops.length - trustedProxyHops)].trim();
+            if (!client.isEmpty()) {
+                return client;
+            }
+        }
+        return remoteAddr;
+    }
+
+    private void checkShared(String tenantKey, String account, String clientIp) {
+        if (!breaker.tryAcquire()) {
+            return;
+        }
+        List<Long> counts;
+        try {
+            counts = redisTemplate.execute(COUNT_ATTEMPTS,
+                    List.of(KEY_PREFIX + "ip:" + clientIp, KEY_PREFIX + "account:" + redisKey(account)),
+                    String.valueOf(refillPeriodMs));
+            breaker.recordSuccess();
+        } catch (RuntimeException e) {
+            // Fail open: the local buckets still apply
+            breaker.recordFailure(e);
+            return;
+        }
+        if (counts == null || counts.size() < 2) {
+            return;
+        }
+        if (counts.get(0) > ipCapacity) {
+            throw reject(ipRejections, "ip", clientIp, refillPeriodMs);
+        }
+        if (counts.get(1) > accountCapacity) {
+            throw reject(accountRejections, "account", tenantKey, refillPeriodMs);
+        }
+    }
+
+    // Account rejections log the tenant only, never the email
+    private TooManyRequestsException reject(Counter counter, String scope, String subject, long waitMs) {
+        counter.increment();
+        log.warn("Login throttled: scope={}, subject={}, retryAfterMs={}", scope, subject, waitMs);
+        return new TooManyRequestsException("Too many login attempts, please retry later", Math.max(1, (waitMs + 999) / 1000));
+    }
+
+    private static String accountKey(String tenantKey, String email) {
+        return tenantKey + ':' + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    // Emails are not written to Redis in clear
+    private static String redisKey(String account) {
+        return DigestUtils.md5DigestAsHex(account.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars with a per-instance seed, finished with the MurmurHash3 mixer
+    private long hash(String value) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        String text = value == null ? "" : value;
+        for (int i = 0; i < text.length(); i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected before authentication")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,131 @@
+package com.crm.AuthService.security;
+
+import com.crm.AuthService.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool that runs every password hash and comparison, sized to the CPU count by default.
+ * <p>
+ * A login storm therefore queues here instead of occupying every servlet thread with BCrypt work, and
+ * once the queue is full (or a task has waited longer than {@code max-wait-ms}) callers fail fast with a
+ * {@link ServiceBusyException} rather than piling up; other endpoints keep their threads and their CPU.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMs;
+    private final long retryAfterSeconds;
+
+    private final Timer queueWait;
+    private final Timer hashMatches;
+    private final Timer hashEncode;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${auth.password-hashing.threads:0}") int threads,
+            @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password-hashing.max-wait-ms:5000}") long maxWaitMs,
+            @Value("${auth.password-hashing.retry-after-seconds:2}") long retryAfterSeconds
+    ) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitMs = maxWaitMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        new ExecutorServiceMetrics(executor, "password-hashing", List.of()).bindTo(meterRegistry);
+        this.queueWait = Timer.builder("auth.password.queue.wait")
+                .description("Time password hashing tasks spend queued before a hashing thread picks them up")
+                .register(meterRegistry);
+        this.hashMatches = hashTimer(meterRegistry, "matches");
+        this.hashEncode = hashTimer(meterRegistry, "encode");
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Password hashing requests refused because the pool was saturated")
+                .register(meterRegistry);
+
+        log.info("Password hashing pool: threads={}, queueCapacity={}", poolSize, queueCapacity);
+    }
+
+    public boolean matches(Supplier<Boolean> comparison) {
+        return run(hashMatches, comparison);
+    }
+
+    public String encode(Supplier<String> encoding) {
+        return run(hashEncode, encoding);
+    }
+
+    private <T> T run(Timer hashTimer, Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            throw busy("queue full");
+        }
+
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw busy("timed out after " + maxWaitMs + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy("interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private ServiceBusyException busy(String reason) {
+        rejected.increment();
+        log.warn("Password hashing rejected: {} (queued={}, active={})", reason, executor.getQueue().size(), executor.getActiveCount());
+        return new ServiceBusyException("Authentication is temporarily overloaded, please retry", retryAfterSeconds);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("Time spent hashing or comparing passwords")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.crm.AuthService.security;
+
+import com.crm.AuthService.cache.CacheEvictionService;
+import com.crm.AuthService.user.entities.User;
+import com.crm.AuthService.user.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stores the new hash when a successful login finds the stored one weaker than the configured
+ * BCrypt cost; called by the authentication provider with the password it just verified.
+ * Login holds no transaction, so the update runs in a transaction of its own once the password
+ * check is over and never needs a second connection; it never fails the login.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Lazy
+public class PasswordRehashService implements UserDetailsPasswordService {
+
+    private final UserRepository userRepository;
+    private final CacheEvictionService cacheEvictionService;
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (!(user instanceof User principal) || principal.getId() == null) {
+            return user;
+        }
+        try {
+            userRepository.findById(principal.getId()).ifPresent(stored -> {
+                stored.setPassword(newPassword);
+                userRepository.save(stored);
+            });
+            cacheEvictionService.evictUserCaches(principal.getId());
+            principal.setPassword(newPassword);
+            log.info("Password rehashed with the current cost: userId={}", principal.getId());
+        } catch (RuntimeException e) {
+            log.warn("Password rehash failed, keeping the old hash: userId={}, error={}", principal.getId(), e.getMessage());
+        }
+        return principal;
+    }
+}
@@ -0,0 +1,204 @@
+package com.crm.AuthService.security;
+
+import com.crm.AuthService.cache.TenantPartitionedCache;
+import com.crm.AuthService.user.entities.User;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-process near cache of loaded principals, partitioned by tenant and keyed by email within it;
+ * each tenant is bounded on its own so one large tenant cannot push out the others, and the number of
+ * tenants holding a partition is bounded too.
+ * <p>
+ * Every entry is stamped with the version counter read before its database load, and every
+ * invalidation records a newer version for the user or role it targets. An entry older than the
+ * last invalidation of its user or of any of its roles is reloaded, even if the load was still in
+ * flight when the eviction happened. A role change therefore only reloads the principals holding it.
+ * Invalidations older than the TTL are pruned; every entry stamped before them is then treated as stale,
+ * which only affects entries that should have expired already.
+ */
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    private final TenantPartitionedCache<String, CachedPrincipal> cache;
+
+    private final AtomicLong versionCounter = new AtomicLong();
+    private final Map<Long, Long> userInvalidatedAt = new ConcurrentHashMap<>();
+    private final Map<Long, Long> roleInvalidatedAt = new ConcurrentHashMap<>();
+    // Entries stamped below this are stale: set by invalidateAll and by pruning
+    private final AtomicLong allInvalidatedAt = new AtomicLong();
+    private volatile long pruneMark;
+
+    private final Counter userInvalidations;
+    private final Counter roleInvalidations;
+    private final Counter tenantInvalidations;
+    private final Counter allInvalidations;
+    private final Counter staleReloads;
+
+    public PrincipalCache(
+            MeterRegistry meterRegistry,
+            @Value("${auth.security.principal-cache.max-size-per-tenant:1000}") long maxSizePerTenant,
+            @Value("${auth.security.principal-cache.max-tenants:1000}") long maxTenants,
+            @Value("${auth.security.principal-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.cache = new TenantPartitionedCache<>(
+                "principals",
+                tenantId -> Caffeine.newBuilder()
+                        .maximumSize(maxSizePerTenant)
+                        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                        .recordStats()
+                        .build(),
+                maxTenants,
+                // Past the TTL an idle partition holds nothing but expired entries
+                Duration.ofSeconds(ttlSeconds),
+                meterRegistry);
+
+        this.userInvalidations = evictionCounter(meterRegistry, "user");
+        this.roleInvalidations = evictionCounter(meterRegistry, "role");
+        this.tenantInvalidations = evictionCounter(meterRegistry, "tenant");
+        this.allInvalidations = evictionCounter(meterRegistry, "all");
+        this.staleReloads = Counter.builder("auth.cache.stale.reloads")
+                .description("Cached entries reloaded because a newer invalidation made them stale")
+                .tag("cache", "principals")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a fresh {@link User} for the key, loading and caching it on a miss or a stale version.
+     */
+    public User get(Long tenantId, String email, Supplier<User> loader) {
+        CachedPrincipal cached = cache.getIfPresent(tenantId, email);
+        if (cached != null) {
+            if (isCurrent(cached)) {
+                return cached.toUser();
+            }
+            staleReloads.increment();
+        }
+
+        long version = versionCounter.get();
+        User loaded = loader.get();
+        cache.put(tenantId, email, CachedPrincipal.of(loaded, version));
+        return loaded;
+    }
+
+    /**
+     * Invalidations run immediately and, inside a transaction, again after commit so a
+     * concurrent reload cannot cache the pre-commit row.
+     */
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        runNowAndAfterCommit(() -> bumpUser(userId));
+    }
+
+    /**
+     * Marks every principal holding the role as stale; principals without it keep their entry.
+     */
+    public void invalidateRole(Long roleId) {
+        if (roleId == null) {
+            return;
+        }
+        runNowAndAfterCommit(() -> bumpRole(roleId));
+    }
+
+    /**
+     * Drops every principal of the tenant, e.g. when it is suspended or offboarded.
+     */
+    public void invalidateTenant(long tenantId) {
+        long removed = cache.invalidateTenant(tenantId);
+        tenantInvalidations.increment();
+        log.debug("Principal cache purged: tenantId={}, entries={}", tenantId, removed);
+    }
+
+    /**
+     * Marks every cached principal as stale, for when the individual invalidations were lost.
+     */
+    public void invalidateAll() {
+        allInvalidatedAt.accumulateAndGet(versionCounter.incrementAndGet(), Math::max);
+        allInvalidations.increment();
+        log.debug("Principal cache invalidated: all");
+    }
+
+    /**
+     * Drops the invalidations recorded before the previous run, i.e. at least one TTL ago. The floor is raised
+     * first, so an entry they made stale is never seen as current in between.
+     */
+    @Scheduled(
+            initialDelayString = "${auth.security.principal-cache.ttl-seconds:300}",
+            fixedDelayString = "${auth.security.principal-cache.ttl-seconds:300}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public void pruneInvalidations() {
+        long previous = pruneMark;
+        pruneMark = versionCounter.get();
+        allInvalidatedAt.accumulateAndGet(previous, Math::max);
+        userInvalidatedAt.values().removeIf(version -> version <= previous);
+        roleInvalidatedAt.values().removeIf(version -> version <= previous);
+    }
+
+    public Map<String, TenantPartitionedCache.TenantCacheStats> stats() {
+        return cache.stats();
+    }
+
+    private void runNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    private void bumpUser(Long userId) {
+        userInvalidatedAt.put(userId, versionCounter.incrementAndGet());
+        userInvalidations.increment();
+        log.debug("Principal cache invalidated: userId={}", userId);
+    }
+
+    private void bumpRole(Long roleId) {
+        roleInvalidatedAt.put(roleId, versionCounter.incrementAndGet());
+        roleInvalidations.increment();
+        log.debug("Principal cache invalidated: roleId={}", roleId);
+    }
+
+    private boolean isCurrent(CachedPrincipal cached) {
+        long version = cached.getVersion();
+        if (version < allInvalidatedAt.get() || version < userInvalidatedAt.getOrDefault(cached.getUserId(), 0L)) {
+            return false;
+        }
+        for (long roleId : cached.roleIds()) {
+            if (version < roleInvalidatedAt.getOrDefault(roleId, 0L)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("auth.cache.evictions")
+                .description("Cache invalidations issued")
+                .tag("cache", "principals")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
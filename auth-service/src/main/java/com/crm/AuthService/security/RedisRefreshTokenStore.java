@@ -0,0 +1,128 @@
+package com.crm.AuthService.security;
+
+import com.crm.AuthService.cache.RedisCircuitBreaker;
+import com.crm.AuthService.exception.ServiceBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Refresh tokens shared by every replica: one Redis hash per token hash, expiring with the token,
+ * plus a marker per revoked family. Each operation is a single script call, so a refresh costs one round trip.
+ * <p>
+ * There is no fallback: login and refresh both depend on Redis. Calls go through the shared
+ * {@link RedisCircuitBreaker}, and while Redis is down or the breaker is open they fail fast with a
+ * {@link ServiceBusyException} (503 with Retry-After) instead of waiting on the connection.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auth.refresh-tokens.store", havingValue = "redis", matchIfMissing = true)
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    private static final String TOKEN_PREFIX = "auth:refresh:token:";
+    private static final String REVOKED_PREFIX = "auth:refresh:revoked:";
+
+    private static final RedisScript<Long> SAVE = RedisScript.of("""
+            redis.call('HSET', KEYS[1], 'userId', ARGV[1], 'tenantId', ARGV[2], 'email', ARGV[3],
+                'family', ARGV[4], 'iat', ARGV[5], 'exp', ARGV[6], 'used', '0')
+            redis.call('PEXPIREAT', KEYS[1], ARGV[6])
+            return 1
+            """, Long.class);
+
+    // ARGV[1] = revoked family key prefix, ARGV[2] = how long a revocation is kept (ms)
+    // Tokens saved before 'iat' was stored report 0, so any user-wide revocation covers them
+    @SuppressWarnings("unchecked")
+    private static final RedisScript<List<Object>> ROTATE = (RedisScript<List<Object>>) (RedisScript<?>) RedisScript.of("""
+            local t = redis.call('HMGET', KEYS[1], 'userId', 'tenantId', 'email', 'family', 'exp', 'used', 'iat')
+            if not t[1] then return {'INVALID'} end
+            local status = 'ROTATED'
+            if redis.call('EXISTS', ARGV[1] .. t[4]) == 1 then
+              status = 'REVOKED'
+            elseif t[6] == '1' then
+              redis.call('SET', ARGV[1] .. t[4], '1', 'PX', ARGV[2])
+              status = 'REUSED'
+            else
+              redis.call('HSET', KEYS[1], 'used', '1')
+            end
+            return {status, t[1], t[2], t[3], t[4], t[5], t[6], t[7] or '0'}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker breaker;
+    private final long refreshExpirationMs;
+
+    public RedisRefreshTokenStore(
+            StringRedisTemplate redisTemplate,
+            RedisCircuitBreaker breaker,
+            @Value("${jwt.refresh-expiration}") long refreshExpirationMs
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.breaker = breaker;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+
+    @Override
+    public void save(String tokenHash, RefreshTokenRecord record) {
+        call(() -> redisTemplate.execute(SAVE, List.of(TOKEN_PREFIX + tokenHash),
+                String.valueOf(record.userId()),
+                String.valueOf(record.tenantId()),
+                record.email(),
+                record.familyId(),
+                String.valueOf(record.issuedAtMillis()),
+                String.valueOf(record.expiresAtMillis())));
+    }
+
+    @Override
+    public Rotation rotate(String tokenHash) {
+        List<Object> result = call(() -> redisTemplate.execute(ROTATE, List.of(TOKEN_PREFIX + tokenHash),
+                REVOKED_PREFIX, String.valueOf(refreshExpirationMs)));
+        if (result == null || result.size() < 8) {
+            return new Rotation(Status.INVALID, null);
+        }
+
+        RefreshTokenRecord record = new RefreshTokenRecord(
+                Long.parseLong((String) result.get(1)),
+                Long.parseLong((String) result.get(2)),
+                (String) result.get(3),
+                (String) result.get(4),
+                Long.parseLong((String) result.get(7)),
+                Long.parseLong((String) result.get(5)),
+                "1".equals(result.get(6)));
+        return new Rotation(Status.valueOf((String) result.get(0)), record);
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        call(() -> {
+            redisTemplate.opsForValue().set(REVOKED_PREFIX + familyId, "1", Duration.ofMillis(refreshExpirationMs));
+            return null;
+        });
+    }
+
+    private <T> T call(Supplier<T> operation) {
+        if (!breaker.tryAcquire()) {
+            throw unavailable();
+        }
+        try {
+            T result = operation.get();
+            breaker.recordSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            breaker.recordFailure(e);
+            log.warn("Refresh token store unavailable: {}", e.getMessage());
+            throw unavailable();
+        }
+    }
+
+    private ServiceBusyException unavailable() {
+        long retryAfterSeconds = Math.max(1, (breaker.getRemainingOpenTime().toMillis() + 999) / 1000);
+        return new ServiceBusyException("Sessions are temporarily unavailable, please retry", retryAfterSeconds);
+    }
+}
@@ -0,0 +1,143 @@
+package com.crm.AuthService.security;
+
+import com.crm.AuthService.exception.InvalidTokenException;
+import com.crm.AuthService.user.entities.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens: 256 random bits, stored server side only as their SHA-256.
+ * <p>
+ * Every refresh consumes the presented token and returns a new one of the same family. Presenting a
+ * consumed token again means a copy leaked, so the whole family (the login session) is revoked and its
+ * newest token stops working as well.
+ */
+@Slf4j
+@Component
+public class RefreshTokenManager {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final RefreshTokenStore store;
+    private final long refreshExpirationMs;
+    private final SecureRandom random = new SecureRandom();
+
+    private final Counter rotated;
+    private final Counter reused;
+    private final Counter rejected;
+
+    public RefreshTokenManager(
+            RefreshTokenStore store,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.refresh-expiration}") long refreshExpirationMs
+    ) {
+        this.store = store;
+        this.refreshExpirationMs = refreshExpirationMs;
+        this.rotated = rotationCounter(meterRegistry, "rotated");
+        this.reused = rotationCounter(meterRegistry, "reused");
+        this.rejected = rotationCounter(meterRegistry, "rejected");
+    }
+
+    /**
+     * Starts a new token family, i.e. a new login session.
+     */
+    public String issue(User user, Long tenantId) {
+        return issue(user, tenantId, UUID.randomUUID().toString());
+    }
+
+    public String issue(User user, Long tenantId, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = TOKEN_ENCODER.encodeToString(bytes);
+        long now = System.currentTimeMillis();
+
+        store.save(hash(token), new RefreshTokenRecord(
+                user.getId(),
+                tenantId,
+                user.getEmail(),
+                familyId,
+                now,
+                now + refreshExpirationMs,
+                false));
+        return token;
+    }
+
+    /**
+     * Consumes the token and returns what it was issued for.
+     *
+     * @throws InvalidTokenException if the token is unknown, expired, already used or its family was revoked
+     */
+    public RefreshTokenRecord rotate(String token) {
+        RefreshTokenStore.Rotation rotation = store.rotate(hash(token));
+        switch (rotation.status()) {
+            case ROTATED -> {
+                if (!rotation.record().isExpired(System.currentTimeMillis())) {
+                    rotated.increment();
+                    return rotation.record();
+                }
+            }
+            case REUSED -> {
+                reused.increment();
+                log.warn("Refresh token reuse detected, session revoked: userId={}, tenantId={}",
+                        rotation.record().userId(), rotation.record().tenantId());
+                throw new InvalidTokenException("Refresh token invalide ou expiré");
+            }
+            default -> {
+            }
+        }
+        rejected.increment();
+        throw new InvalidTokenException("Refresh token invalide ou expiré");
+    }
+
+    public void revokeFamily(String familyId) {
+        store.revokeFamily(familyId);
+    }
+
+    /**
+     * Ends the login session the token belongs to, e.g. on logout. Unknown or expired tokens are ignored.
+     */
+    public void revoke(String token) {
+        RefreshTokenStore.Rotation rotation = store.rotate(hash(token));
+        if (rotation.record() != null) {
+            store.revokeFamily(rotation.record().familyId());
+        }
+    }
+
+    /**
+     * Refresh tokens issued before the store existed are JWTs; opaque tokens contain no dots.
+     */
+    public boolean isOpaque(String token) {
+        return token.indexOf('.') < 0;
+    }
+
+    private static String hash(String token) {
+        byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return TOKEN_ENCODER.encodeToString(digest);
+    }
+
+    private static Counter rotationCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.refresh.rotations")
+                .description("Refresh token rotations by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
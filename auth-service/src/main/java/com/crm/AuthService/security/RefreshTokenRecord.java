@@ -0,0 +1,24 @@
+package com.crm.AuthService.security;
+
+/**
+ * What the refresh token store keeps per token, under the hash of the token.
+ * Every token of a login session shares its {@code familyId}; {@code used} marks a token already rotated.
+ */
+public record RefreshTokenRecord(
+        long userId,
+        long tenantId,
+        String email,
+        String familyId,
+        long issuedAtMillis,
+        long expiresAtMillis,
+        boolean used
+) {
+
+    public RefreshTokenRecord markUsed() {
+        return new RefreshTokenRecord(userId, tenantId, email, familyId, issuedAtMillis, expiresAtMillis, true);
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,25 @@
+package com.crm.AuthService.security;
+
+/**
+ * Server-side store of opaque refresh tokens, keyed by token hash.
+ * Implementations must make {@link #rotate(String)} atomic: of two concurrent calls for the same
+ * token, exactly one may see {@link Status#ROTATED}. Revoked families are remembered for the
+ * refresh token lifetime, after which none of their tokens can still be valid.
+ */
+public interface RefreshTokenStore {
+
+    enum Status { ROTATED, REUSED, REVOKED, INVALID }
+
+    record Rotation(Status status, RefreshTokenRecord record) {
+    }
+
+    void save(String tokenHash, RefreshTokenRecord record);
+
+    /**
+     * Marks the token as used and returns its record. A token presented a second time revokes its
+     * whole family, since either the client or an attacker still holds a copy of it.
+     */
+    Rotation rotate(String tokenHash);
+
+    void revokeFamily(String familyId);
+}
@@ -0,0 +1,70 @@
+package com.crm.AuthService.security;
+
+import com.crm.AuthService.role.entities.Role;
+import com.crm.AuthService.tenant.services.TenantDirectory;
+import com.crm.AuthService.tenant.services.TenantEntry;
+import com.crm.AuthService.user.entities.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Builds the {@link User} principal from verified token claims, the {@link AuthSnapshotService}
+ * snapshot and the {@link TenantDirectory}, without any JDBC access for known tenants.
+ * Returns empty whenever the snapshot cannot answer authoritatively, so the caller falls back to
+ * {@link CustomUserDetailsService}.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatelessPrincipalFactory {
+
+    private final AuthSnapshotService authSnapshotService;
+    private final TenantDirectory tenantDirectory;
+
+    public Optional<User> fromToken(VerifiedToken token) {
+        if (token.getUserId() == null || token.getTenantId() == null || token.getSubject() == null) {
+            return Optional.empty();
+        }
+
+        AuthSnapshotService.Snapshot snapshot = authSnapshotService.current();
+        if (snapshot == null
+                || authSnapshotService.isPending(token.getUserId())
+                || snapshot.changedSince(token.getUserId(), token.getIssuedAt())) {
+            return Optional.empty();
+        }
+
+        TenantEntry tenant = tenantDirectory.findById(token.getTenantId()).orElse(null);
+        if (tenant == null) {
+            return Optional.empty();
+        }
+
+        Set<Role> roles = new HashSet<>();
+        for (String roleName : token.getRoles()) {
+            Role role = snapshot.rolesByName().get(roleName);
+            if (role == null) {
+                // Role created or renamed after the last reload
+                return Optional.empty();
+            }
+            roles.add(role);
+        }
+
+        boolean active = !snapshot.inactiveUserIds().contains(token.getUserId());
+
+        User user = User.builder()
+                .id(token.getUserId())
+                .email(token.getSubject())
+                .enabled(active)
+                .accountNonLocked(active)
+                .roles(roles)
+                .roleNames(new HashSet<>(token.getRoles()))
+                .tenantName(tenant.getName())
+                .tenantStatus(tenant.getStatus())
+                .build();
+        user.setTenantId(token.getTenantId());
+
+        return Optional.of(user);
+    }
+}
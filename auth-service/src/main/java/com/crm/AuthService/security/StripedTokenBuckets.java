@@ -0,0 +1,127 @@
+package com.crm.AuthService.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size table of token buckets updated with CAS only; keys are never stored.
+ * <p>
+ * Each bucket is one long: the last refill time (ms since construction, plus one so that 0 means
+ * "never used" = full) in the high 42 bits and the tokens in thousandths in the low 22 bits.
+ * A key hashes to two stripes. An attempt is allowed while either of them has a token and is
+ * charged to every stripe that has one, so a key colliding with an abusive one in a single stripe
+ * keeps its own budget, and flooding the table with distinct keys has to drain both stripes of a victim.
+ */
+class StripedTokenBuckets {
+
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long ONE_TOKEN = 1000;
+
+    private final AtomicLongArray buckets;
+    private final int mask;
+    private final long capacity;
+    private final long refillPeriodMs;
+    private final long baseMs = System.currentTimeMillis();
+
+    /**
+     * @param stripes        rounded up to a power of two
+     * @param capacity       burst size in tokens (at most 4000)
+     * @param refillPeriodMs time to refill an empty bucket completely
+     */
+    StripedTokenBuckets(int stripes, int capacity, long refillPeriodMs) {
+        if (capacity < 1 || capacity * ONE_TOKEN > TOKEN_MASK) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + TOKEN_MASK / ONE_TOKEN);
+        }
+        int size = Integer.highestOneBit(Math.max(2, stripes - 1)) << 1;
+        this.buckets = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.capacity = capacity * ONE_TOKEN;
+        this.refillPeriodMs = Math.max(1, refillPeriodMs);
+    }
+
+    /**
+     * Takes one token for the key; returns 0 when allowed, otherwise the milliseconds until a token is available.
+     */
+    long tryAcquire(long hash) {
+        int first = (int) hash & mask;
+        int second = (int) (hash >>> 32) & mask;
+        long now = now();
+
+        boolean firstHasToken = tokens(buckets.get(first), now) >= ONE_TOKEN;
+        boolean secondHasToken = tokens(buckets.get(second), now) >= ONE_TOKEN;
+        if (!firstHasToken && !secondHasToken) {
+            return Math.min(waitMs(first, now), waitMs(second, now));
+        }
+
+        boolean acquired = firstHasToken && take(first, now);
+        if (secondHasToken && second != first) {
+            acquired |= take(second, now);
+        }
+        return acquired ? 0 : Math.max(1, Math.min(waitMs(first, now), waitMs(second, now)));
+    }
+
+    /**
+     * Gives one token back to both stripes of the key, e.g. after the attempt turned out to be legitimate.
+     */
+    void refund(long hash) {
+        long now = now();
+        give(((int) hash) & mask, now);
+        int second = (int) (hash >>> 32) & mask;
+        if (second != (((int) hash) & mask)) {
+            give(second, now);
+        }
+    }
+
+    private boolean take(int index, long now) {
+        while (true) {
+            long current = buckets.get(index);
+            long tokens = tokens(current, now);
+            if (tokens < ONE_TOKEN) {
+                return false;
+            }
+            if (buckets.compareAndSet(index, current, pack(refilledAt(current, now), tokens - ONE_TOKEN))) {
+                return true;
+            }
+        }
+    }
+
+    private void give(int index, long now) {
+        while (true) {
+            long current = buckets.get(index);
+            long tokens = Math.min(capacity, tokens(current, now) + ONE_TOKEN);
+            if (buckets.compareAndSet(index, current, pack(refilledAt(current, now), tokens))) {
+                return;
+            }
+        }
+    }
+
+    private long waitMs(int index, long now) {
+        long missing = ONE_TOKEN - tokens(buckets.get(index), now);
+        return missing <= 0 ? 0 : (missing * refillPeriodMs + capacity - 1) / capacity;
+    }
+
+    private long tokens(long bucket, long now) {
+        if (bucket == 0) {
+            return capacity;
+        }
+        long elapsed = Math.min(now - (bucket >>> TOKEN_BITS), refillPeriodMs);
+        return Math.min(capacity, (bucket & TOKEN_MASK) + Math.max(0, elapsed) * capacity / refillPeriodMs);
+    }
+
+    // Keeps the old timestamp while less than a thousandth of a token has accrued, so frequent calls still refill
+    private long refilledAt(long bucket, long now) {
+        if (bucket == 0) {
+            return now;
+        }
+        long last = bucket >>> TOKEN_BITS;
+        return (now - last) * capacity / refillPeriodMs > 0 ? now : last;
+    }
+
+    private long now() {
+        return System.currentTimeMillis() - baseMs + 1;
+    }
+
+    private static long pack(long time, long tokens) {
+        return (time << TOKEN_BITS) | tokens;
+    }
+}
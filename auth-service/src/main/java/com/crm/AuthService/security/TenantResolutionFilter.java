@@ -1,8 +1,8 @@
 package com.crm.AuthService.security;
 
 import com.crm.AuthService.exception.TenantNotFoundException;
-import com.crm.AuthService.tenant.entities.Tenant;
-import com.crm.AuthService.tenant.repository.TenantRepository;
+import com.crm.AuthService.tenant.services.TenantDirectory;
+import com.crm.AuthService.tenant.services.TenantEntry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,7 +23,7 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class TenantResolutionFilter extends OncePerRequestFilter {
 
-    private final TenantRepository tenantRepository;
+    private final TenantDirectory tenantDirectory;
 
     private static final String TENANT_ID_HEADER = "X-Tenant-ID";
     private static final String TENANT_SUBDOMAIN_HEADER = "X-Tenant-Subdomain";
@@ -72,7 +72,7 @@ public class TenantResolutionFilter extends OncePerRequestFilter {
             try {
                 Long tenantId = Long.parseLong(tenantIdHeader);
                 // Validate tenant exists
-                if (tenantRepository.findById(tenantId).isPresent()) {
+                if (tenantDirectory.findById(tenantId).isPresent()) {
                     return tenantId;
                 }
                 throw new TenantNotFoundException("Tenant not found with ID: " + tenantId);
@@ -84,7 +84,7 @@ public class TenantResolutionFilter extends OncePerRequestFilter {
         // Priority 2: X-Tenant-Subdomain header
         String subdomain = request.getHeader(TENANT_SUBDOMAIN_HEADER);
         if (subdomain != null && !subdomain.isBlank()) {
-            Tenant tenant = tenantRepository.findBySubdomain(subdomain.toLowerCase())
+            TenantEntry tenant = tenantDirectory.findBySubdomain(subdomain)
                     .orElseThrow(() -> new TenantNotFoundException("Tenant not found with subdomain: " + subdomain));
             return tenant.getId();
         }
@@ -93,8 +93,8 @@ public class TenantResolutionFilter extends OncePerRequestFilter {
         String host = request.getHeader("Host");
         if (host != null && host.contains(".")) {
             String possibleSubdomain = host.split("\\.")[0];
-            return tenantRepository.findBySubdomain(possibleSubdomain.toLowerCase())
-                    .map(Tenant::getId)
+            return tenantDirectory.findBySubdomain(possibleSubdomain)
+                    .map(TenantEntry::getId)
                     .orElse(null);
         }
 
@@ -0,0 +1,271 @@
+package com.crm.AuthService.security;
+
+import com.crm.AuthService.cache.RedisCircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.pfa.security.DenylistBloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Revoked access tokens ({@code t:<jti>}) and revoked users ({@code u:<tenantId>:<userId>}, every token
+ * issued up to the revocation), each kept only until the tokens it covers have expired.
+ * <p>
+ * Redis is the authoritative store: one key per entry plus a sorted set of entries by expiry. Every instance
+ * rebuilds a {@link DenylistBloomFilter} from it on a fixed delay and serves it to the other services, so the
+ * common case (not revoked) is a few bit probes. Only a Bloom hit reads the entry itself, from Redis or, while
+ * Redis is unavailable, from this instance's copy.
+ */
+@Slf4j
+@Component
+public class TokenDenylist {
+
+    private static final String ENTRY_PREFIX = "auth:denylist:";
+    private static final String INDEX_KEY = "auth:denylist:index";
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private static final RedisScript<Long> REVOKE = RedisScript.of("""
+            redis.call('SET', KEYS[1], ARGV[1])
+            redis.call('PEXPIREAT', KEYS[1], ARGV[2])
+            redis.call('ZADD', KEYS[2], ARGV[2], ARGV[3])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker breaker;
+    private final long userRevocationTtlMs;
+
+    // This instance's view of the entries: revoked here or loaded by the last sync
+    private final Map<String, LocalEntry> entries = new ConcurrentHashMap<>();
+    private volatile DenylistBloomFilter filter = DenylistBloomFilter.create(MIN_CAPACITY, FALSE_POSITIVE_RATE);
+    private volatile Snapshot snapshot;
+
+    private final Counter revoked;
+    private final Counter falsePositives;
+
+    public TokenDenylist(
+            StringRedisTemplate redisTemplate,
+            RedisCircuitBreaker breaker,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.expiration}") long accessExpirationMs,
+            @Value("${jwt.refresh-expiration}") long refreshExpirationMs
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.breaker = breaker;
+        // A user revocation must also outlive the refresh tokens issued before it
+        this.userRevocationTtlMs = Math.max(accessExpirationMs, refreshExpirationMs);
+
+        this.revoked = bloomHitCounter(meterRegistry, "revoked");
+        this.falsePositives = bloomHitCounter(meterRegistry, "false_positive");
+        Gauge.builder("auth.denylist.entries", entries, Map::size)
+                .description("Denylist entries known to this instance")
+                .register(meterRegistry);
+    }
+
+    public static String tokenEntry(String tokenId) {
+        return "t:" + tokenId;
+    }
+
+    public static String userEntry(long tenantId, long userId) {
+        return "u:" + tenantId + ":" + userId;
+    }
+
+    /**
+     * Denies one access token until it expires.
+     */
+    public void revokeToken(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        add(tokenEntry(tokenId), System.currentTimeMillis(), expiresAt.toEpochMilli());
+    }
+
+    /**
+     * Denies every access and refresh token issued to the user up to now.
+     */
+    public void revokeUser(long tenantId, long userId) {
+        long now = System.currentTimeMillis();
+        add(userEntry(tenantId, userId), now, now + userRevocationTtlMs);
+    }
+
+    /**
+     * Revokes the user once the current transaction has committed, so a rolled back change revokes nothing.
+     */
+    public void revokeUserAfterCommit(long tenantId, long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revokeUser(tenantId, userId);
+                }
+            });
+        } else {
+            revokeUser(tenantId, userId);
+        }
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        if (token.getTokenId() != null && revokedAt(tokenEntry(token.getTokenId())) != null) {
+            return true;
+        }
+        if (token.getUserId() == null || token.getTenantId() == null || token.getIssuedAt() == null) {
+            return false;
+        }
+        // iat only has whole seconds: tokens from the revocation's own second are given the benefit of the doubt,
+        // otherwise a login right after a revocation would be rejected for the token's whole lifetime
+        Long revokedAt = revokedAt(userEntry(token.getTenantId(), token.getUserId()));
+        return revokedAt != null && token.getIssuedAt().getEpochSecond() < Math.floorDiv(revokedAt, 1000);
+    }
+
+    /**
+     * True when the user was revoked at or after the given issue time, for refresh tokens whose issue time is exact.
+     */
+    public boolean isUserRevokedSince(long tenantId, long userId, long issuedAtMillis) {
+        Long revokedAt = revokedAt(userEntry(tenantId, userId));
+        return revokedAt != null && issuedAtMillis <= revokedAt;
+    }
+
+    /**
+     * Revocation time of the entry, or null when it is not on the denylist. Only Bloom hits reach the store.
+     */
+    public Long revokedAt(String entry) {
+        if (!filter.mightContain(entry)) {
+            return null;
+        }
+        Long revokedAt = lookup(entry);
+        (revokedAt != null ? revoked : falsePositives).increment();
+        return revokedAt;
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = buildSnapshot(filter);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        sync();
+    }
+
+    @Scheduled(
+            initialDelayString = "${auth.token-denylist.sync-interval-ms:5000}",
+            fixedDelayString = "${auth.token-denylist.sync-interval-ms:5000}"
+    )
+    public void sync() {
+        long startedAt = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= startedAt);
+
+        Set<String> shared = loadSharedEntries(startedAt);
+        List<String> all = new ArrayList<>(entries.keySet());
+        if (shared != null) {
+            all.addAll(shared);
+        }
+
+        DenylistBloomFilter rebuilt = DenylistBloomFilter.create(Math.max(MIN_CAPACITY, all.size() * 2L), FALSE_POSITIVE_RATE);
+        all.forEach(rebuilt::put);
+        filter = rebuilt;
+        // Entries revoked here while the filter was being rebuilt
+        entries.forEach((entry, local) -> {
+            if (local.revokedAt() >= startedAt) {
+                rebuilt.put(entry);
+            }
+        });
+        snapshot = null;
+        log.debug("Token denylist synced: entries={}", all.size());
+    }
+
+    private void add(String entry, long revokedAt, long expiresAt) {
+        entries.put(entry, new LocalEntry(revokedAt, expiresAt));
+        filter.put(entry);
+        snapshot = null;
+
+        if (breaker.tryAcquire()) {
+            try {
+                redisTemplate.execute(REVOKE, List.of(ENTRY_PREFIX + entry, INDEX_KEY),
+                        String.valueOf(revokedAt), String.valueOf(expiresAt), entry);
+                breaker.recordSuccess();
+                return;
+            } catch (RuntimeException e) {
+                breaker.recordFailure(e);
+            }
+        }
+        log.warn("Denylist entry kept on this instance only until Redis is back: entry={}", entry);
+    }
+
+    private Long lookup(String entry) {
+        if (breaker.tryAcquire()) {
+            try {
+                String value = redisTemplate.opsForValue().get(ENTRY_PREFIX + entry);
+                breaker.recordSuccess();
+                if (value != null) {
+                    return Long.parseLong(value);
+                }
+            } catch (RuntimeException e) {
+                breaker.recordFailure(e);
+            }
+        }
+        LocalEntry local = entries.get(entry);
+        return local != null && local.expiresAt() > System.currentTimeMillis() ? local.revokedAt() : null;
+    }
+
+    private Set<String> loadSharedEntries(long now) {
+        if (!breaker.tryAcquire()) {
+            return null;
+        }
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(INDEX_KEY, Double.NEGATIVE_INFINITY, now);
+            Set<String> shared = redisTemplate.opsForZSet().rangeByScore(INDEX_KEY, now, Double.POSITIVE_INFINITY);
+            breaker.recordSuccess();
+            return shared;
+        } catch (RuntimeException e) {
+            breaker.recordFailure(e);
+            log.warn("Token denylist sync failed, keeping local entries: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Snapshot buildSnapshot(DenylistBloomFilter filter) {
+        byte[] bits = filter.toBytes();
+        CRC32C crc = new CRC32C();
+        crc.update(bits);
+        return new Snapshot(Long.toHexString(crc.getValue()) + "-" + bits.length, filter.getHashes(), bits);
+    }
+
+    private static Counter bloomHitCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.denylist.bloom.hits")
+                .description("Denylist Bloom filter hits checked against the store")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Serialized filter; the version is derived from the bits, so every instance with the same entries serves the same one.
+     */
+    public record Snapshot(String version, int hashes, byte[] bits) {
+    }
+
+    private record LocalEntry(long revokedAt, long expiresAt) {
+    }
+}
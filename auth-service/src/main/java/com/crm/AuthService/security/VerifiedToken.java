@@ -0,0 +1,41 @@
+package com.crm.AuthService.security;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable view of a JWT whose signature and expiry have already been checked.
+ * Produced once per request by {@link JwtService#verify(String)} so callers never re-parse the token.
+ */
+@Value
+@Builder
+public class VerifiedToken {
+
+    String subject;
+
+    /**
+     * The jti claim; null for tokens minted before it was introduced, which can then only be revoked per user.
+     */
+    String tokenId;
+
+    /**
+     * Null for tokens minted before the userId claim was introduced.
+     */
+    Long userId;
+
+    Long tenantId;
+
+    @Builder.Default
+    List<String> roles = List.of();
+
+    Instant issuedAt;
+
+    Instant expiresAt;
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+}
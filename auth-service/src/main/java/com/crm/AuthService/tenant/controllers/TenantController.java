@@ -0,0 +1,54 @@
+package com.crm.AuthService.tenant.controllers;
+
+import com.crm.AuthService.annotations.RequirePermission;
+import com.crm.AuthService.tenant.dtos.UpdateTenantStatusRequest;
+import com.crm.AuthService.tenant.services.TenantDirectory;
+import com.crm.AuthService.tenant.services.TenantEntry;
+import com.crm.AuthService.tenant.services.TenantService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/tenants")
+public class TenantController {
+
+    private final TenantService tenantService;
+    private final TenantDirectory tenantDirectory;
+
+    @PutMapping("/{id}/status")
+    @RequirePermission(resource = "TENANT", action = "MANAGE")
+    public ResponseEntity<Map<String, Object>> updateStatus(@PathVariable Long id,
+                                                            @Valid @RequestBody UpdateTenantStatusRequest request) {
+        TenantEntry tenant = tenantService.updateStatus(id, request.getStatus());
+        return ResponseEntity.ok(Map.of(
+                "id", tenant.getId(),
+                "subdomain", tenant.getSubdomain(),
+                "status", tenant.getStatus()
+        ));
+    }
+
+    /**
+     * Every tenant that is not ACTIVE, polled by the other services; public like the permission catalog.
+     * Pollers send back the ETag and get 304 until a status changes.
+     */
+    @GetMapping("/status-snapshot")
+    public ResponseEntity<Map<String, Object>> getStatusSnapshot(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TenantDirectory.StatusSnapshot snapshot = tenantDirectory.statusSnapshot();
+        String etag = "\"" + snapshot.version() + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(Map.of(
+                "version", snapshot.version(),
+                "statuses", snapshot.inactive()
+        ));
+    }
+}
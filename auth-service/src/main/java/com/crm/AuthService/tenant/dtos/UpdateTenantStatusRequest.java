@@ -0,0 +1,17 @@
+package com.crm.AuthService.tenant.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UpdateTenantStatusRequest {
+
+    @NotBlank(message = "Status is required")
+    @Pattern(regexp = "ACTIVE|SUSPENDED|DEACTIVATED", message = "Status must be ACTIVE, SUSPENDED or DEACTIVATED")
+    private String status;
+}
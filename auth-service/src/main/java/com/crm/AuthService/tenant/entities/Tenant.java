@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
@@ -14,12 +16,16 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "tenants", schema = "public")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Tenant.CACHE_REGION)
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 @Builder
 public class Tenant {
 
+    public static final String CACHE_REGION = "auth-tenants";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -1,11 +1,24 @@
 package com.crm.AuthService.tenant.repository;
 
 import com.crm.AuthService.tenant.entities.Tenant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface TenantRepository extends JpaRepository<Tenant, Long> {
 
     Optional<Tenant> findBySubdomain(String subdomain);
+
+    /**
+     * Reads the row from the database and refreshes the second-level cache with it,
+     * for when another instance has just changed the tenant.
+     */
+    @Query("select t from Tenant t where t.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    Optional<Tenant> findCurrentById(@Param("id") Long id);
 }
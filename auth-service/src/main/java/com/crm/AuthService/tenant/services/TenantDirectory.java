@@ -0,0 +1,337 @@
+package com.crm.AuthService.tenant.services;
+
+import com.crm.AuthService.cache.TwoLevelCacheManager;
+import com.crm.AuthService.exception.TenantNotFoundException;
+import com.crm.AuthService.tenant.entities.Tenant;
+import com.crm.AuthService.tenant.repository.TenantRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory directory of every tenant, keyed by id and by subdomain.
+ * <p>
+ * The whole table is loaded at startup and reloaded on a fixed delay; tenants saved on this
+ * instance are published right after commit, and tenants saved on another instance as soon as its
+ * tenant cache eviction arrives. A miss falls back to the database once and unknown
+ * ids/subdomains are remembered for a short time, so repeated bogus headers never reach JDBC.
+ */
+@Slf4j
+@Component
+public class TenantDirectory {
+
+    // Same shape as the subdomains accepted at registration
+    private static final Pattern SUBDOMAIN_PATTERN = Pattern.compile("^[a-z0-9]([a-z0-9-]{0,61}[a-z0-9])?$");
+
+    private final TenantRepository tenantRepository;
+    private final TwoLevelCacheManager cacheManager;
+    private final Cache<Long, Boolean> unknownIds;
+    private final Cache<String, Boolean> unknownSubdomains;
+
+    private final Object writeLock = new Object();
+    private volatile Directory directory = Directory.EMPTY;
+    private long mutationCount;
+
+    public TenantDirectory(
+            TenantRepository tenantRepository,
+            TwoLevelCacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            @Value("${auth.tenant-directory.negative-ttl-seconds:30}") long negativeTtlSeconds,
+            @Value("${auth.tenant-directory.negative-max-size:10000}") long negativeMaxSize
+    ) {
+        this.tenantRepository = tenantRepository;
+        this.cacheManager = cacheManager;
+        this.unknownIds = Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .recordStats()
+                .build();
+        this.unknownSubdomains = Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownIds, "unknownTenantIds");
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownSubdomains, "unknownTenantSubdomains");
+    }
+
+    @PostConstruct
+    void registerPeerEvictionListener() {
+        cacheManager.addPeerEvictionListener((cacheName, key) -> {
+            if ("tenants".equals(cacheName) && key != null && !key.isEmpty() && key.chars().allMatch(Character::isDigit)) {
+                refresh(Long.parseLong(key));
+            }
+        });
+    }
+
+    /**
+     * Loaded before {@code DatabaseInitializer} so the master tenant check is answered from memory.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void preload() {
+        reload();
+    }
+
+    @Scheduled(
+            initialDelayString = "${auth.tenant-directory.refresh-interval-ms:60000}",
+            fixedDelayString = "${auth.tenant-directory.refresh-interval-ms:60000}"
+    )
+    public void reload() {
+        try {
+            long mutationsAtStart;
+            synchronized (writeLock) {
+                mutationsAtStart = mutationCount;
+            }
+
+            List<TenantEntry> entries = tenantRepository.findAll().stream()
+                    .map(TenantEntry::from)
+                    .toList();
+            Directory loaded = Directory.of(entries);
+
+            synchronized (writeLock) {
+                if (mutationCount != mutationsAtStart) {
+                    // A tenant was published meanwhile and the rows read above may predate it
+                    log.debug("Tenant directory reload skipped: concurrent update");
+                    return;
+                }
+                directory = loaded;
+            }
+            unknownIds.invalidateAll();
+            unknownSubdomains.invalidateAll();
+
+            log.debug("Tenant directory reloaded: tenants={}", entries.size());
+        } catch (Exception e) {
+            // Keep serving the previous directory
+            log.error("Failed to reload tenant directory: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-reads one tenant changed by another instance, e.g. a status change.
+     */
+    public void refresh(long id) {
+        try {
+            tenantRepository.findCurrentById(id).ifPresent(this::publish);
+        } catch (Exception e) {
+            // The next reload picks the change up
+            log.error("Failed to refresh tenant {}: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Every tenant that is not ACTIVE; tenants missing from it are active. Computed once per directory change.
+     */
+    public StatusSnapshot statusSnapshot() {
+        return directory.statusSnapshot();
+    }
+
+    public Optional<TenantEntry> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        TenantEntry entry = directory.byId.get(id);
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+        if (unknownIds.getIfPresent(id) != null) {
+            return Optional.empty();
+        }
+
+        Optional<TenantEntry> loaded = tenantRepository.findById(id).map(this::publish);
+        if (loaded.isEmpty()) {
+            unknownIds.put(id, Boolean.TRUE);
+        }
+        return loaded;
+    }
+
+    public TenantEntry getRequired(Long id) {
+        return findById(id)
+                .orElseThrow(() -> new TenantNotFoundException("Tenant not found with id: " + id));
+    }
+
+    public Optional<TenantEntry> findBySubdomain(String subdomain) {
+        if (subdomain == null || subdomain.isBlank()) {
+            return Optional.empty();
+        }
+
+        String normalized = subdomain.toLowerCase();
+        TenantEntry entry = directory.bySubdomain.get(normalized);
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+        if (!SUBDOMAIN_PATTERN.matcher(normalized).matches()
+                || unknownSubdomains.getIfPresent(normalized) != null) {
+            return Optional.empty();
+        }
+
+        Optional<TenantEntry> loaded = tenantRepository.findBySubdomain(normalized).map(this::publish);
+        if (loaded.isEmpty()) {
+            unknownSubdomains.put(normalized, Boolean.TRUE);
+        }
+        return loaded;
+    }
+
+    /**
+     * Publishes a created or updated tenant; inside a transaction this happens only after commit.
+     */
+    public void onTenantSaved(Tenant tenant) {
+        TenantEntry entry = TenantEntry.from(tenant);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(entry);
+                }
+            });
+        } else {
+            publish(entry);
+        }
+    }
+
+    private TenantEntry publish(Tenant tenant) {
+        return publish(TenantEntry.from(tenant));
+    }
+
+    private TenantEntry publish(TenantEntry entry) {
+        synchronized (writeLock) {
+            directory = directory.with(entry);
+            mutationCount++;
+        }
+        unknownIds.invalidate(entry.getId());
+        unknownSubdomains.invalidate(entry.getSubdomain());
+        log.debug("Tenant directory updated: id={}, subdomain={}", entry.getId(), entry.getSubdomain());
+        return entry;
+    }
+
+    /**
+     * Status of every inactive tenant; the version is derived from the content, so every instance serves the same one.
+     */
+    public record StatusSnapshot(String version, Map<Long, String> inactive) {
+    }
+
+    /**
+     * Immutable pair of lookup tables swapped as a whole on every change.
+     */
+    private static final class Directory {
+
+        static final Directory EMPTY = of(List.of());
+
+        final LongKeyedTable byId;
+        final Map<String, TenantEntry> bySubdomain;
+        // Racy but idempotent: at worst two threads compute the same snapshot
+        private StatusSnapshot statusSnapshot;
+
+        private Directory(LongKeyedTable byId, Map<String, TenantEntry> bySubdomain) {
+            this.byId = byId;
+            this.bySubdomain = bySubdomain;
+        }
+
+        static Directory of(Collection<TenantEntry> entries) {
+            Map<String, TenantEntry> bySubdomain = new HashMap<>(entries.size() * 2);
+            for (TenantEntry entry : entries) {
+                bySubdomain.put(entry.getSubdomain(), entry);
+            }
+            return new Directory(LongKeyedTable.of(entries), Map.copyOf(bySubdomain));
+        }
+
+        StatusSnapshot statusSnapshot() {
+            StatusSnapshot snapshot = statusSnapshot;
+            if (snapshot == null) {
+                List<TenantEntry> inactive = bySubdomain.values().stream()
+                        .filter(entry -> !entry.isActive())
+                        .sorted(Comparator.comparingLong(TenantEntry::getId))
+                        .toList();
+                Map<Long, String> statuses = new HashMap<>(inactive.size() * 2);
+                CRC32C crc = new CRC32C();
+                for (TenantEntry entry : inactive) {
+                    statuses.put(entry.getId(), String.valueOf(entry.getStatus()));
+                    crc.update((entry.getId() + ":" + entry.getStatus() + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+                snapshot = new StatusSnapshot(Long.toHexString(crc.getValue()) + "-" + inactive.size(), Map.copyOf(statuses));
+                statusSnapshot = snapshot;
+            }
+            return snapshot;
+        }
+
+        Directory with(TenantEntry entry) {
+            Map<Long, TenantEntry> entries = new HashMap<>();
+            for (TenantEntry existing : bySubdomain.values()) {
+                entries.put(existing.getId(), existing);
+            }
+            entries.put(entry.getId(), entry);
+            return of(entries.values());
+        }
+    }
+
+    /**
+     * Read-only open-addressing table from a primitive {@code long} id to its entry,
+     * avoiding boxing on the per-request lookup.
+     */
+    private static final class LongKeyedTable {
+
+        private final long[] keys;
+        private final TenantEntry[] values;
+        private final int mask;
+
+        private LongKeyedTable(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new TenantEntry[capacity];
+            this.mask = capacity - 1;
+        }
+
+        static LongKeyedTable of(Collection<TenantEntry> entries) {
+            int capacity = Integer.highestOneBit(Math.max(16, entries.size() * 2) - 1) << 1;
+            LongKeyedTable table = new LongKeyedTable(capacity);
+            for (TenantEntry entry : entries) {
+                int slot = table.slot(entry.getId());
+                while (table.values[slot] != null && table.keys[slot] != entry.getId()) {
+                    slot = (slot + 1) & table.mask;
+                }
+                table.keys[slot] = entry.getId();
+                table.values[slot] = entry;
+            }
+            return table;
+        }
+
+        TenantEntry get(long key) {
+            int slot = slot(key);
+            TenantEntry value;
+            while ((value = values[slot]) != null) {
+                if (keys[slot] == key) {
+                    return value;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.crm.AuthService.tenant.services;
+
+import com.crm.AuthService.tenant.entities.Tenant;
+import lombok.Value;
+
+/**
+ * Immutable view of a tenant row held by {@link TenantDirectory}.
+ */
+@Value
+public class TenantEntry {
+
+    private static final String STATUS_ACTIVE = "ACTIVE";
+
+    long id;
+    String name;
+    String subdomain;
+    String status;
+    String plan;
+
+    public static TenantEntry from(Tenant tenant) {
+        return new TenantEntry(
+                tenant.getId(),
+                tenant.getName(),
+                tenant.getSubdomain().toLowerCase(),
+                tenant.getStatus(),
+                tenant.getSubscription_plan()
+        );
+    }
+
+    public boolean isActive() {
+        return STATUS_ACTIVE.equals(status);
+    }
+}
@@ -0,0 +1,6 @@
+package com.crm.AuthService.tenant.services;
+
+public interface TenantService {
+    TenantEntry updateStatus(Long id, String status);
+
+}
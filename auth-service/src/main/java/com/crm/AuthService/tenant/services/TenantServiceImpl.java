@@ -0,0 +1,54 @@
+package com.crm.AuthService.tenant.services;
+
+import com.crm.AuthService.cache.CacheEvictionService;
+import com.crm.AuthService.exception.TenantNotFoundException;
+import com.crm.AuthService.tenant.entities.Tenant;
+import com.crm.AuthService.tenant.repository.TenantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TenantServiceImpl implements TenantService {
+
+    private static final String MASTER_TENANT_SUBDOMAIN = "admin";
+
+    private final TenantRepository tenantRepository;
+    private final TenantDirectory tenantDirectory;
+    private final CacheEvictionService cacheEvictionService;
+
+    /**
+     * The new status reaches this instance's {@link TenantDirectory} on commit, the other auth instances
+     * through the tenant cache eviction, and the other services with their next status snapshot poll.
+     */
+    @Override
+    @Transactional
+    public TenantEntry updateStatus(Long id, String status) {
+        Tenant tenant = tenantRepository.findById(id)
+                .orElseThrow(() -> new TenantNotFoundException("Tenant not found with id: " + id));
+        if (status.equals(tenant.getStatus())) {
+            return TenantEntry.from(tenant);
+        }
+        if (MASTER_TENANT_SUBDOMAIN.equalsIgnoreCase(tenant.getSubdomain())) {
+            throw new AccessDeniedException("The master tenant status cannot be changed");
+        }
+
+        String previousStatus = tenant.getStatus();
+        tenant.setStatus(status);
+        Tenant savedTenant = tenantRepository.save(tenant);
+        TenantEntry entry = TenantEntry.from(savedTenant);
+
+        tenantDirectory.onTenantSaved(savedTenant);
+        cacheEvictionService.evictTenantCache(savedTenant.getId());
+        if (!entry.isActive()) {
+            cacheEvictionService.purgeTenant(savedTenant.getId());
+        }
+
+        log.info("Tenant status changed: id={}, {} -> {}", savedTenant.getId(), previousStatus, status);
+        return entry;
+    }
+}
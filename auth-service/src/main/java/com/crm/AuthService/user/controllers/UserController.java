@@ -21,7 +21,7 @@ import java.util.Set;
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/users")
 public class UserController {
-    UserService userService;
+    private final UserService userService;
 
 
     @PostMapping
@@ -69,4 +69,14 @@ public class UserController {
         return ResponseEntity.ok(userService.deactivateUser(id));
     }
 
+    /**
+     * Signs the user out everywhere: every access and refresh token issued so far stops working.
+     */
+    @PostMapping("/{id}/revoke-sessions")
+    @RequirePermission(resource = "USER", action = "UPDATE")
+    public ResponseEntity<Void> revokeSessions(@PathVariable Long id) {
+        userService.revokeSessions(id);
+        return ResponseEntity.noContent().build();
+    }
+
 }
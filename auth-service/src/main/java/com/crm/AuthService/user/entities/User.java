@@ -95,22 +95,51 @@ public class User extends TenantAwareEntity implements UserDetails {
     @Builder.Default
     private Set<String> permissions = new HashSet<>();
 
+    /**
+     * Authorities derived from roleNames/roles, computed once and reset whenever roles change.
+     * Principals served from the principal cache arrive with this already populated.
+     */
+    @Transient
+    private Set<GrantedAuthority> grantedAuthorities;
+
     // ============================================================
     // UserDetails Implementation
     // ============================================================
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
+        Set<GrantedAuthority> authorities = grantedAuthorities;
+        if (authorities == null) {
+            authorities = computeAuthorities();
+            grantedAuthorities = authorities;
+        }
+        return authorities;
+    }
+
+    private Set<GrantedAuthority> computeAuthorities() {
         // Use transient roleNames if populated, otherwise extract from roles
         if (roleNames != null && !roleNames.isEmpty()) {
             return roleNames.stream()
                     .map(SimpleGrantedAuthority::new)
-                    .collect(Collectors.toSet());
+                    .collect(Collectors.toUnmodifiableSet());
         }
 
+        if (roles == null) {
+            return Set.of();
+        }
         return roles.stream()
                 .map(role -> new SimpleGrantedAuthority(role.getName()))
-                .collect(Collectors.toSet());
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public void setRoles(Set<Role> roles) {
+        this.roles = roles;
+        this.grantedAuthorities = null;
+    }
+
+    public void setRoleNames(Set<String> roleNames) {
+        this.roleNames = roleNames;
+        this.grantedAuthorities = null;
     }
 
     @Override
@@ -151,6 +180,7 @@ public class User extends TenantAwareEntity implements UserDetails {
             this.roles = new HashSet<>();
         }
         this.roles.add(role);
+        this.grantedAuthorities = null;
     }
 
     /**
@@ -161,6 +191,7 @@ public class User extends TenantAwareEntity implements UserDetails {
         if (this.roles != null) {
             this.roles.remove(role);
         }
+        this.grantedAuthorities = null;
     }
 
     public Set<Long> getRoleIds() {
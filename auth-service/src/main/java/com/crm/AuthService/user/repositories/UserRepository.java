@@ -7,7 +7,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
@@ -15,6 +18,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
 
+    @Query("SELECT u.id FROM User u WHERE u.enabled = false OR u.accountNonLocked = false")
+    Set<Long> findInactiveUserIds();
+
+
+    @Query("SELECT u.id, u.updatedAt FROM User u WHERE u.updatedAt >= :since")
+    List<Object[]> findIdsUpdatedSince(@Param("since") LocalDateTime since);
+
+
     @Query("SELECT u FROM User u WHERE " +
             "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -16,5 +16,6 @@ public interface UserService {
     void deleteUser(Long id);
     UserResponse activateUser(Long id);
     UserResponse deactivateUser(Long id);
+    void revokeSessions(Long id);
     UserResponse assignRoles(Long id, Set<String> roleNames);
 }
\ No newline at end of file
@@ -3,13 +3,13 @@ package com.crm.AuthService.user.services;
 import com.crm.AuthService.cache.CacheEvictionService;
 import com.crm.AuthService.exception.EmailAlreadyExistsException;
 import com.crm.AuthService.exception.RoleNotFoundException;
-import com.crm.AuthService.exception.TenantNotFoundException;
 import com.crm.AuthService.exception.UserNotFoundException;
 import com.crm.AuthService.role.entities.Role;
 import com.crm.AuthService.role.repositories.RoleRepository;
 import com.crm.AuthService.security.TenantContextHolder;
-import com.crm.AuthService.tenant.entities.Tenant;
-import com.crm.AuthService.tenant.repository.TenantRepository;
+import com.crm.AuthService.security.TokenDenylist;
+import com.crm.AuthService.tenant.services.TenantDirectory;
+import com.crm.AuthService.tenant.services.TenantEntry;
 import com.crm.AuthService.user.dtos.*;
 import com.crm.AuthService.user.entities.User;
 import com.crm.AuthService.user.repositories.UserRepository;
@@ -33,13 +33,13 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final TenantRepository tenantRepository;
+    private final TenantDirectory tenantDirectory;
     private final PasswordEncoder passwordEncoder;
     private final CacheEvictionService cacheEvictionService;
+    private final TokenDenylist tokenDenylist;
 
-    private Tenant getRequiredTenant(Long tenantId) {
-        return tenantRepository.findById(tenantId)
-                .orElseThrow(() -> new TenantNotFoundException("Tenant not found with id: " + tenantId));
+    private TenantEntry getRequiredTenant(Long tenantId) {
+        return tenantDirectory.getRequired(tenantId);
     }
 
     /**
@@ -71,7 +71,7 @@ public class UserServiceImpl implements UserService {
     @Transactional(readOnly = true)
     public Page<UserResponse> getAllUsers(Pageable pageable, String search) {
         Long tenantId = TenantContextHolder.getRequiredTenantId();
-        Tenant tenant = getRequiredTenant(tenantId);
+        TenantEntry tenant = getRequiredTenant(tenantId);
 
         Page<User> users;
         if (search != null && !search.isBlank()) {
@@ -87,7 +87,7 @@ public class UserServiceImpl implements UserService {
     @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
         Long tenantId = TenantContextHolder.getRequiredTenantId();
-        Tenant tenant = getRequiredTenant(tenantId);
+        TenantEntry tenant = getRequiredTenant(tenantId);
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
@@ -99,7 +99,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserResponse createUser(CreateUserRequest request) {
         Long tenantId = TenantContextHolder.getRequiredTenantId();
-        Tenant tenant = getRequiredTenant(tenantId);
+        TenantEntry tenant = getRequiredTenant(tenantId);
 
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new EmailAlreadyExistsException(request.getEmail());
@@ -127,11 +127,10 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserResponse updateUser(Long id, UpdateUserRequest request) {
         Long tenantId = TenantContextHolder.getRequiredTenantId();
-        Tenant tenant = getRequiredTenant(tenantId);
+        TenantEntry tenant = getRequiredTenant(tenantId);
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
-        String oldEmail = user.getEmail();
 
         if (request.getFirstName() != null) {
             user.setFirstName(request.getFirstName());
@@ -158,10 +157,7 @@ public class UserServiceImpl implements UserService {
         user.setUpdatedAt(LocalDateTime.now());
         User updatedUser = userRepository.save(user);
 
-        cacheEvictionService.evictUserCaches(updatedUser.getId(), oldEmail);
-        if (!oldEmail.equals(updatedUser.getEmail())) {
-            cacheEvictionService.evictUserCaches(updatedUser.getId(), updatedUser.getEmail());
-        }
+        cacheEvictionService.evictUserCaches(updatedUser.getId());
 
         log.info("User updated: id={}, email={}, tenantId={}", updatedUser.getId(), updatedUser.getEmail(), tenantId);
 
@@ -179,7 +175,9 @@ public class UserServiceImpl implements UserService {
         user.setEnabled(false);
         user.setAccountNonLocked(false);
         userRepository.save(user);
-        cacheEvictionService.evictUserCaches(user.getId(), user.getEmail());
+        cacheEvictionService.evictUserCaches(user.getId());
+        // Other services trust tokens without loading the user, so end them here
+        tokenDenylist.revokeUserAfterCommit(tenantId, user.getId());
 
         log.info("User soft deleted: id={}, email={}, tenantId={}", user.getId(), user.getEmail(), tenantId);
     }
@@ -188,7 +186,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserResponse activateUser(Long id) {
         Long tenantId = TenantContextHolder.getRequiredTenantId();
-        Tenant tenant = getRequiredTenant(tenantId);
+        TenantEntry tenant = getRequiredTenant(tenantId);
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
@@ -196,7 +194,7 @@ public class UserServiceImpl implements UserService {
         user.setEnabled(true);
         user.setAccountNonLocked(true);
         User savedUser = userRepository.save(user);
-        cacheEvictionService.evictUserCaches(savedUser.getId(), savedUser.getEmail());
+        cacheEvictionService.evictUserCaches(savedUser.getId());
 
         log.info("User activated: id={}, email={}", savedUser.getId(), savedUser.getEmail());
 
@@ -207,7 +205,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserResponse deactivateUser(Long id) {
         Long tenantId = TenantContextHolder.getRequiredTenantId();
-        Tenant tenant = getRequiredTenant(tenantId);
+        TenantEntry tenant = getRequiredTenant(tenantId);
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
@@ -216,17 +214,31 @@ public class UserServiceImpl implements UserService {
         user.setAccountNonLocked(false);
         User savedUser = userRepository.save(user);
 
-        cacheEvictionService.evictUserCaches(savedUser.getId(), savedUser.getEmail());
+        cacheEvictionService.evictUserCaches(savedUser.getId());
+        // Other services trust tokens without loading the user, so end them here
+        tokenDenylist.revokeUserAfterCommit(tenantId, savedUser.getId());
         log.info("User deactivated: id={}, email={}", savedUser.getId(), savedUser.getEmail());
 
         return toUserResponse(savedUser, tenant);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void revokeSessions(Long id) {
+        Long tenantId = TenantContextHolder.getRequiredTenantId();
+
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+
+        tokenDenylist.revokeUser(tenantId, user.getId());
+        log.info("User sessions revoked: id={}, tenantId={}", user.getId(), tenantId);
+    }
+
     @Override
     @Transactional
     public UserResponse assignRoles(Long id, Set<String> roleNames) {
         Long tenantId = TenantContextHolder.getRequiredTenantId();
-        Tenant tenant = getRequiredTenant(tenantId);
+        TenantEntry tenant = getRequiredTenant(tenantId);
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
@@ -234,16 +246,17 @@ public class UserServiceImpl implements UserService {
         // UPDATED: Set Role entities
         Set<Role> validatedRoles = validateAndGetRoles(roleNames);
         user.setRoles(validatedRoles);
+        user.setUpdatedAt(LocalDateTime.now());
         User savedUser = userRepository.save(user);
 
-        cacheEvictionService.evictUserCaches(savedUser.getId(), savedUser.getEmail());
+        cacheEvictionService.evictUserCaches(savedUser.getId());
 
         log.info("Roles assigned: userId={}, roleNames={}", savedUser.getId(), roleNames);
 
         return toUserResponse(savedUser, tenant);
     }
 
-    private UserResponse toUserResponse(User user, Tenant tenant) {
+    private UserResponse toUserResponse(User user, TenantEntry tenant) {
         // UPDATED: Extract roles directly from User entity
         Set<RoleDto> roleDtos = user.getRoles().stream()
                 .map(role -> RoleDto.builder()
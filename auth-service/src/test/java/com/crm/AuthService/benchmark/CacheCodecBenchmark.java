@@ -0,0 +1,115 @@
+package com.crm.AuthService.benchmark;
+
+import com.crm.AuthService.cache.CompactCacheSerializer;
+import com.crm.AuthService.role.dtos.PermissionDto;
+import com.crm.AuthService.role.dtos.RoleResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serializer (previous CacheConfig default) versus {@link CompactCacheSerializer} on an "allRoles" payload.
+ * Payload sizes are printed before the run.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.crm.AuthService.benchmark.CacheCodecBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    private static final String[] RESOURCES = {
+            "USER", "ROLE", "PERMISSION", "TENANT", "CUSTOMER", "TICKET",
+            "ORDER", "INVOICE", "PRODUCT", "REPORT", "SETTINGS", "AUDIT"
+    };
+    private static final String[] ACTIONS = {"CREATE", "READ", "UPDATE", "DELETE", "EXPORT"};
+
+    private GenericJackson2JsonRedisSerializer json;
+    private CompactCacheSerializer compact;
+
+    private List<RoleResponse> roles;
+    private byte[] jsonBytes;
+    private byte[] compactBytes;
+
+    @Setup
+    public void setUp() {
+        json = new GenericJackson2JsonRedisSerializer();
+        compact = new CompactCacheSerializer(json);
+        roles = sampleRoles();
+        jsonBytes = json.serialize(roles);
+        compactBytes = compact.serialize(roles);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return json.serialize(roles);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() {
+        return json.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] compactSerialize() {
+        return compact.serialize(roles);
+    }
+
+    @Benchmark
+    public Object compactDeserialize() {
+        return compact.deserialize(compactBytes);
+    }
+
+    // Six roles over a 60-permission catalog, roughly what the seeded system roles look like
+    private static List<RoleResponse> sampleRoles() {
+        List<PermissionDto> catalog = new ArrayList<>();
+        long id = 1;
+        for (String resource : RESOURCES) {
+            for (String action : ACTIONS) {
+                catalog.add(new PermissionDto(id++, resource, action));
+            }
+        }
+
+        List<RoleResponse> roles = new ArrayList<>();
+        for (int r = 0; r < 6; r++) {
+            Set<PermissionDto> permissions = new HashSet<>();
+            for (int i = r; i < catalog.size(); i += r + 1) {
+                permissions.add(catalog.get(i));
+            }
+            roles.add(new RoleResponse((long) r + 1, "ROLE_" + r, "Sample role " + r, r < 2, permissions));
+        }
+        return roles;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        CacheCodecBenchmark sizes = new CacheCodecBenchmark();
+        sizes.setUp();
+        System.out.printf("Payload size: json=%d bytes, compact=%d bytes%n",
+                sizes.jsonBytes.length, sizes.compactBytes.length);
+
+        new Runner(new OptionsBuilder()
+                .include(CacheCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
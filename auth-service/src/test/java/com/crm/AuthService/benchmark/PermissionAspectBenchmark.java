@@ -0,0 +1,115 @@
+package com.crm.AuthService.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.crm.AuthService.aspects.PermissionAspect;
+import com.crm.AuthService.role.controllers.RoleController;
+import com.crm.AuthService.role.services.PermissionService;
+import com.crm.AuthService.role.services.RoleService;
+import com.crm.AuthService.user.controllers.UserController;
+import com.crm.AuthService.user.services.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call overhead of the permission aspect on {@link UserController} and {@link RoleController}:
+ * the previous reflective aspect ({@link LegacyPermissionAspect}) versus the guard registry.
+ * Permission lookups are stubbed to always grant, so only the aspect itself is measured.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.crm.AuthService.benchmark.PermissionAspectBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionAspectBenchmark {
+
+    private UserController userControllerDirect;
+    private UserController userControllerLegacy;
+    private UserController userControllerGuarded;
+    private RoleController roleControllerLegacy;
+    private RoleController roleControllerGuarded;
+
+    @Setup
+    public void setUp() {
+        // As in the running service: debug logging off
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        PermissionService grantAll = new PermissionService(null) {
+            @Override
+            public boolean hasPermission(String resource, String action) {
+                return true;
+            }
+        };
+
+        userControllerDirect = new UserController(stub(UserService.class));
+        userControllerLegacy = proxy(new UserController(stub(UserService.class)), new LegacyPermissionAspect(grantAll));
+        userControllerGuarded = proxy(new UserController(stub(UserService.class)), new PermissionAspect(grantAll));
+        roleControllerLegacy = proxy(new RoleController(stub(RoleService.class)), new LegacyPermissionAspect(grantAll));
+        roleControllerGuarded = proxy(new RoleController(stub(RoleService.class)), new PermissionAspect(grantAll));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> userDeleteNoAspect() {
+        return userControllerDirect.deleteUser(1L);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> userDeleteLegacy() {
+        return userControllerLegacy.deleteUser(1L);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> userDeleteGuarded() {
+        return userControllerGuarded.deleteUser(1L);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> roleGetLegacy() {
+        return roleControllerLegacy.getRoleById(1L);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> roleGetGuarded() {
+        return roleControllerGuarded.getRoleById(1L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return (T) factory.getProxy();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PermissionAspectBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
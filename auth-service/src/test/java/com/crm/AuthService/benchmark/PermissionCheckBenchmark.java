@@ -0,0 +1,116 @@
+package com.crm.AuthService.benchmark;
+
+import com.crm.AuthService.role.entities.Permission;
+import com.crm.AuthService.role.entities.Role;
+import com.crm.AuthService.role.services.PermissionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Stream-over-permissions check (previous PermissionService implementation) versus the compiled bitset check.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.crm.AuthService.benchmark.PermissionCheckBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionCheckBenchmark {
+
+    private static final String[] RESOURCES = {
+            "USER", "ROLE", "PERMISSION", "TENANT", "CUSTOMER", "TICKET",
+            "ORDER", "INVOICE", "PRODUCT", "REPORT", "SETTINGS", "AUDIT"
+    };
+    private static final String[] ACTIONS = {"CREATE", "READ", "UPDATE", "DELETE", "EXPORT"};
+
+    private Set<Role> userRoles;
+    private PermissionRegistry.Snapshot registry;
+
+    @Setup
+    public void setUp() {
+        List<Permission> catalog = new ArrayList<>();
+        long id = 1;
+        for (String resource : RESOURCES) {
+            for (String action : ACTIONS) {
+                catalog.add(Permission.builder().id(id++).name(resource + "_" + action)
+                        .resource(resource).action(action).build());
+            }
+        }
+
+        // Three overlapping roles covering most of the catalog, as a tenant admin typically has
+        userRoles = new HashSet<>();
+        for (int r = 0; r < 3; r++) {
+            Set<Permission> permissions = new HashSet<>();
+            for (int i = r; i < catalog.size(); i += 2) {
+                permissions.add(catalog.get(i));
+            }
+            userRoles.add(Role.builder().id((long) r + 1).name("ROLE_" + r).permissions(permissions).build());
+        }
+
+        registry = PermissionRegistry.Snapshot.build(catalog, userRoles);
+    }
+
+    @Benchmark
+    public boolean streamGranted() {
+        return streamCheck("audit", "export");
+    }
+
+    @Benchmark
+    public boolean streamDenied() {
+        return streamCheck("invoice", "purge");
+    }
+
+    @Benchmark
+    public boolean bitsetGranted() {
+        return bitsetCheck("audit", "export");
+    }
+
+    @Benchmark
+    public boolean bitsetDenied() {
+        return bitsetCheck("invoice", "purge");
+    }
+
+    private boolean streamCheck(String resource, String action) {
+        Set<Permission> permissions = userRoles.stream()
+                .flatMap(role -> role.getPermissions().stream())
+                .collect(Collectors.toSet());
+
+        return permissions.stream()
+                .anyMatch(p ->
+                        p.getResource().equalsIgnoreCase(resource) &&
+                                p.getAction().equalsIgnoreCase(action)
+                );
+    }
+
+    private boolean bitsetCheck(String resource, String action) {
+        int ordinal = registry.ordinalOf(resource, action);
+        return ordinal >= 0 && registry.effectivePermissions(userRoles).contains(ordinal);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PermissionCheckBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
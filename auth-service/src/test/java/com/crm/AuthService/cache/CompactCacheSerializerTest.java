@@ -0,0 +1,130 @@
+package com.crm.AuthService.cache;
+
+import com.crm.AuthService.role.dtos.PermissionDto;
+import com.crm.AuthService.role.dtos.RoleResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompactCacheSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private final CompactCacheSerializer serializer = new CompactCacheSerializer(json);
+
+    @Test
+    void roundTripsARole() {
+        RoleResponse role = role(3L, "SALES_MANAGER", "Manages the sales team", false,
+                permission(1L, "customer", "read"), permission(2L, "customer", "write"));
+
+        assertEquals(role, roundTrip(role));
+    }
+
+    @Test
+    void keepsNullFields() {
+        RoleResponse role = new RoleResponse();
+
+        RoleResponse decoded = (RoleResponse) roundTrip(role);
+
+        assertEquals(role, decoded);
+        assertNull(decoded.getPermissions());
+        assertNull(decoded.getIsSystemRole());
+        assertEquals(new PermissionDto(), roundTrip(new PermissionDto()));
+    }
+
+    @Test
+    void keepsAnEmptyPermissionSetApartFromNone() {
+        RoleResponse role = role(4L, "VIEWER", null, true);
+
+        RoleResponse decoded = (RoleResponse) roundTrip(role);
+
+        assertEquals(Set.of(), decoded.getPermissions());
+        assertEquals(true, decoded.getIsSystemRole());
+    }
+
+    @Test
+    void roundTripsNonAsciiText() {
+        RoleResponse role = role(5L, "Responsable des ventes – Île-de-France", "営業部 🚀", false,
+                permission(9L, "facture", "créer"));
+
+        assertEquals(role, roundTrip(role));
+    }
+
+    @Test
+    void roundTripsIdsAcrossVarintBoundaries() {
+        for (long id : new long[]{0, 126, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE}) {
+            PermissionDto permission = permission(id, "r", "a");
+            assertEquals(permission, roundTrip(permission), "id " + id);
+        }
+    }
+
+    @Test
+    void roundTripsTheRoleList() {
+        List<RoleResponse> roles = List.of(
+                role(1L, "ADMIN", "Everything", true, permission(1L, "user", "delete")),
+                role(2L, "USER", null, false));
+
+        assertEquals(roles, roundTrip(roles));
+        assertEquals(List.of(), roundTrip(List.of()));
+    }
+
+    @Test
+    void otherValuesGoThroughJson() {
+        Map<String, Object> value = new HashMap<>(Map.of("tenant", "acme"));
+
+        assertEquals(value, roundTrip(value));
+        assertEquals(value, serializer.deserialize(json.serialize(value)));
+    }
+
+    @Test
+    void valueFromANewerFormatIsAMiss() {
+        byte[] bytes = serializer.serialize(role(1L, "ADMIN", null, true));
+        bytes[1] = CompactCacheSerializer.FORMAT_VERSION + 1;
+
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    @Test
+    void truncatedValueIsRejected() {
+        byte[] bytes = serializer.serialize(role(1L, "ADMIN", "Everything", true, permission(1L, "user", "delete")));
+
+        assertThrows(SerializationException.class,
+                () -> serializer.deserialize(Arrays.copyOf(bytes, bytes.length - 3)));
+    }
+
+    @Test
+    void nullIsStoredAsNothing() {
+        assertArrayEquals(new byte[0], serializer.serialize(null));
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+
+    private Object roundTrip(Object value) {
+        return serializer.deserialize(serializer.serialize(value));
+    }
+
+    private static RoleResponse role(Long id, String name, String description, Boolean systemRole,
+                                     PermissionDto... permissions) {
+        return RoleResponse.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .isSystemRole(systemRole)
+                .permissions(new LinkedHashSet<>(List.of(permissions)))
+                .build();
+    }
+
+    private static PermissionDto permission(long id, String resource, String action) {
+        return new PermissionDto(id, resource, action);
+    }
+}
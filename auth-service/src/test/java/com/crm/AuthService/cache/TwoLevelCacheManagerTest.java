@@ -0,0 +1,67 @@
+package com.crm.AuthService.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+
+class TwoLevelCacheManagerTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final TwoLevelCacheManager manager = manager(2);
+
+    @Test
+    void broadcastThatMissedRedisIsPublishedOnceRedisIsBack() {
+        doThrow(new RedisConnectionFailureException("down"))
+                .when(redisTemplate).convertAndSend(anyString(), anyString());
+        manager.broadcastEviction("principals", "user:42");
+        assertEquals(1, manager.getPendingEvictionCount());
+
+        reset(redisTemplate);
+        manager.replayPending();
+
+        verify(redisTemplate).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL),
+                endsWith("\nprincipals\nuser:42"));
+        assertEquals(0, manager.getPendingEvictionCount());
+    }
+
+    @Test
+    void tooManyMissedBroadcastsCollapseIntoAClear() {
+        doThrow(new RedisConnectionFailureException("down"))
+                .when(redisTemplate).convertAndSend(anyString(), anyString());
+        manager.broadcastEviction("principals", "user:1");
+        manager.broadcastEviction("principals", "user:2");
+        manager.broadcastEviction("principals", "user:3");
+        assertEquals(1, manager.getPendingEvictionCount());
+
+        reset(redisTemplate);
+        manager.replayPending();
+
+        verify(redisTemplate).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL),
+                endsWith("\nprincipals"));
+        assertEquals(0, manager.getPendingEvictionCount());
+    }
+
+    private TwoLevelCacheManager manager(int maxPendingEvictions) {
+        LocalCacheSettings settings = LocalCacheSettings.builder()
+                .maxSize(100)
+                .ttl(Duration.ofMinutes(1))
+                .refreshPolicies(name -> CacheRefreshPolicy.DISABLED)
+                .build();
+        return new TwoLevelCacheManager(new ConcurrentMapCacheManager("roles"), redisTemplate,
+                new SimpleMeterRegistry(), settings, new RedisCircuitBreaker(5, Duration.ofSeconds(10)),
+                maxPendingEvictions, 100);
+    }
+}
@@ -0,0 +1,162 @@
+package com.crm.AuthService.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class TwoLevelCacheTest {
+
+    private static final String CACHE = "roles";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesRunTheLoaderOnce() throws Exception {
+        TwoLevelCache cache = cache(Duration.ofMinutes(1), CacheRefreshPolicy.DISABLED);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> cache.get("admin", () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "loaded";
+            })));
+        }
+        awaitCount("auth.cache.loads.coalesced", 7);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("loaded", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals("loaded", cache.getRemote().get("admin").get());
+    }
+
+    @Test
+    void loaderFailureReachesWaitersAndIsNotCached() throws Exception {
+        TwoLevelCache cache = cache(Duration.ofMinutes(1), CacheRefreshPolicy.DISABLED);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Object> first = executor.submit(() -> cache.get("admin", () -> {
+            loading.countDown();
+            release.await();
+            throw new IllegalStateException("database down");
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<Object> waiter = executor.submit(() -> cache.get("admin", () -> "unused"));
+        awaitCount("auth.cache.loads.coalesced", 1);
+        release.countDown();
+
+        assertFailsWith(first);
+        assertFailsWith(waiter);
+        assertEquals("reloaded", cache.get("admin", () -> "reloaded"));
+    }
+
+    @Test
+    void expiredEntryIsServedStaleWhileOneCallerReloads() throws Exception {
+        TwoLevelCache cache = cache(Duration.ofMillis(50), new CacheRefreshPolicy(Duration.ofMinutes(1), 0));
+        assertEquals("v1", cache.get("admin", () -> "v1"));
+        // Redis no longer has the value either, so the reload has to go to the loader
+        cache.getRemote().evict("admin");
+        Thread.sleep(80);
+
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> refresher = executor.submit(() -> cache.get("admin", () -> {
+            reloading.countDown();
+            release.await();
+            return "v2";
+        }));
+        assertTrue(reloading.await(5, TimeUnit.SECONDS));
+
+        assertEquals("v1", cache.get("admin", () -> "unused"));
+        assertEquals(1, count("auth.cache.stale.served"));
+
+        release.countDown();
+        assertEquals("v2", refresher.get(5, TimeUnit.SECONDS));
+        assertEquals("v2", cache.get("admin", () -> "unused"));
+    }
+
+    @Test
+    void freshEntryIsServedFromL1() {
+        TwoLevelCache cache = cache(Duration.ofMinutes(1), CacheRefreshPolicy.DISABLED);
+        assertEquals("v1", cache.get("admin", () -> "v1"));
+        cache.getRemote().evict("admin");
+
+        assertEquals("v1", cache.get("admin", () -> "v2"));
+        assertEquals(0, count("auth.cache.refreshes"));
+    }
+
+    @Test
+    void earlyRefreshRunsTheLoaderEvenThoughRedisHasTheValue() {
+        // A huge beta makes the early refresh certain once the loader duration is known
+        TwoLevelCache cache = cache(Duration.ofMinutes(1), new CacheRefreshPolicy(Duration.ZERO, 1e12));
+        assertEquals("v1", cache.get("admin", () -> {
+            Thread.sleep(2);
+            return "v1";
+        }));
+
+        assertEquals("v2", cache.get("admin", () -> "v2"));
+        assertEquals(1, count("auth.cache.refreshes"));
+        assertEquals("v2", cache.getRemote().get("admin").get());
+    }
+
+    private TwoLevelCache cache(Duration ttl, CacheRefreshPolicy refreshPolicy) {
+        LocalCacheSettings settings = LocalCacheSettings.builder()
+                .maxSize(100)
+                .ttl(ttl)
+                .refreshPolicies(name -> refreshPolicy)
+                .build();
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(new ConcurrentMapCacheManager(CACHE),
+                mock(StringRedisTemplate.class), meterRegistry, settings,
+                new RedisCircuitBreaker(5, Duration.ofSeconds(10)), 100, 100);
+        return (TwoLevelCache) manager.getCache(CACHE);
+    }
+
+    private double count(String meterName) {
+        return meterRegistry.get(meterName).tag("cache", CACHE).counter().count();
+    }
+
+    private void awaitCount(String meterName, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(meterName) < expected) {
+            assertTrue(System.nanoTime() < deadline, meterName + " never reached " + expected);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void assertFailsWith(Future<?> load) {
+        Exception e = assertThrows(Exception.class, () -> load.get(5, TimeUnit.SECONDS));
+        Throwable cause = e.getCause();
+        while (cause != null && !(cause instanceof IllegalStateException)) {
+            cause = cause.getCause();
+        }
+        assertTrue(cause != null && "database down".equals(cause.getMessage()), "unexpected failure: " + e);
+    }
+}
@@ -0,0 +1,182 @@
+package com.crm.AuthService.security;
+
+import com.crm.AuthService.role.entities.Role;
+import com.crm.AuthService.user.entities.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrincipalCacheTest {
+
+    private static final long TENANT_ID = 7L;
+    private static final long OTHER_TENANT_ID = 8L;
+    private static final long SALES_ROLE = 1L;
+    private static final long ADMIN_ROLE = 2L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PrincipalCache cache = new PrincipalCache(meterRegistry, 100, 100, 300);
+
+    @Test
+    void servesCachedPrincipalWithoutReloading() {
+        CountingLoader jane = new CountingLoader(user(1L, "jane@acme.test", SALES_ROLE));
+
+        cache.get(TENANT_ID, "jane@acme.test", jane);
+        User cached = cache.get(TENANT_ID, "jane@acme.test", jane);
+
+        assertEquals(1, jane.loads.get());
+        assertEquals(1L, cached.getId());
+        assertEquals(TENANT_ID, cached.getTenantId());
+    }
+
+    @Test
+    void userInvalidationReloadsOnlyThatUser() {
+        CountingLoader jane = new CountingLoader(user(1L, "jane@acme.test", SALES_ROLE));
+        CountingLoader john = new CountingLoader(user(2L, "john@acme.test", SALES_ROLE));
+        cache.get(TENANT_ID, "jane@acme.test", jane);
+        cache.get(TENANT_ID, "john@acme.test", john);
+
+        cache.invalidateUser(1L);
+        cache.get(TENANT_ID, "jane@acme.test", jane);
+        cache.get(TENANT_ID, "john@acme.test", john);
+
+        assertEquals(2, jane.loads.get());
+        assertEquals(1, john.loads.get());
+        assertEquals(1, staleReloads());
+    }
+
+    @Test
+    void roleInvalidationReloadsOnlyPrincipalsHoldingTheRole() {
+        CountingLoader seller = new CountingLoader(user(1L, "jane@acme.test", SALES_ROLE));
+        CountingLoader admin = new CountingLoader(user(2L, "john@acme.test", ADMIN_ROLE));
+        cache.get(TENANT_ID, "jane@acme.test", seller);
+        cache.get(TENANT_ID, "john@acme.test", admin);
+
+        cache.invalidateRole(SALES_ROLE);
+        cache.get(TENANT_ID, "jane@acme.test", seller);
+        cache.get(TENANT_ID, "john@acme.test", admin);
+
+        assertEquals(2, seller.loads.get());
+        assertEquals(1, admin.loads.get());
+    }
+
+    @Test
+    void invalidationDuringALoadMakesThatLoadStale() {
+        User jane = user(1L, "jane@acme.test", SALES_ROLE);
+        // The row was read before the change committed, so what it caches must not be served afterwards
+        cache.get(TENANT_ID, "jane@acme.test", () -> {
+            cache.invalidateUser(1L);
+            return jane;
+        });
+
+        CountingLoader reload = new CountingLoader(jane);
+        cache.get(TENANT_ID, "jane@acme.test", reload);
+        cache.get(TENANT_ID, "jane@acme.test", reload);
+
+        assertEquals(1, reload.loads.get());
+    }
+
+    @Test
+    void tenantInvalidationDropsOnlyThatTenant() {
+        CountingLoader jane = new CountingLoader(user(1L, "jane@acme.test", SALES_ROLE));
+        CountingLoader other = new CountingLoader(user(3L, "jane@other.test", SALES_ROLE));
+        cache.get(TENANT_ID, "jane@acme.test", jane);
+        cache.get(OTHER_TENANT_ID, "jane@other.test", other);
+
+        cache.invalidateTenant(TENANT_ID);
+        cache.get(TENANT_ID, "jane@acme.test", jane);
+        cache.get(OTHER_TENANT_ID, "jane@other.test", other);
+
+        assertEquals(2, jane.loads.get());
+        assertEquals(1, other.loads.get());
+    }
+
+    @Test
+    void invalidateAllReloadsEveryPrincipal() {
+        CountingLoader jane = new CountingLoader(user(1L, "jane@acme.test", SALES_ROLE));
+        CountingLoader other = new CountingLoader(user(3L, "jane@other.test", ADMIN_ROLE));
+        cache.get(TENANT_ID, "jane@acme.test", jane);
+        cache.get(OTHER_TENANT_ID, "jane@other.test", other);
+
+        cache.invalidateAll();
+        cache.get(TENANT_ID, "jane@acme.test", jane);
+        cache.get(OTHER_TENANT_ID, "jane@other.test", other);
+
+        assertEquals(2, jane.loads.get());
+        assertEquals(2, other.loads.get());
+    }
+
+    @Test
+    void prunedInvalidationsStillMakeOlderEntriesStale() {
+        CountingLoader jane = new CountingLoader(user(1L, "jane@acme.test", SALES_ROLE));
+        cache.get(TENANT_ID, "jane@acme.test", jane);
+        cache.invalidateUser(1L);
+
+        // The second run drops the invalidation recorded before the first one
+        cache.pruneInvalidations();
+        cache.pruneInvalidations();
+        cache.get(TENANT_ID, "jane@acme.test", jane);
+        cache.get(TENANT_ID, "jane@acme.test", jane);
+
+        assertEquals(2, jane.loads.get());
+    }
+
+    @Test
+    void boundsTheNumberOfTenantPartitions() {
+        PrincipalCache bounded = new PrincipalCache(meterRegistry, 100, 2, 300);
+        for (long tenantId = 1; tenantId <= 10; tenantId++) {
+            bounded.get(tenantId, "jane@acme.test", new CountingLoader(user(1L, "jane@acme.test", SALES_ROLE)));
+        }
+
+        assertTrue(bounded.stats().size() <= 2, "partitions: " + bounded.stats().keySet());
+    }
+
+    @Test
+    void callersCannotChangeTheCachedPrincipal() {
+        CountingLoader jane = new CountingLoader(user(1L, "jane@acme.test", SALES_ROLE));
+        cache.get(TENANT_ID, "jane@acme.test", jane);
+
+        cache.get(TENANT_ID, "jane@acme.test", jane).setEmail("mallory@acme.test");
+
+        assertEquals("jane@acme.test", cache.get(TENANT_ID, "jane@acme.test", jane).getEmail());
+    }
+
+    private double staleReloads() {
+        return meterRegistry.get("auth.cache.stale.reloads").tag("cache", "principals").counter().count();
+    }
+
+    private static User user(long id, String email, long roleId) {
+        User user = User.builder()
+                .id(id)
+                .email(email)
+                .password("{noop}secret")
+                .firstName("Jane")
+                .lastName("Doe")
+                .roles(new HashSet<>(Set.of(Role.builder().id(roleId).name("ROLE_" + roleId).build())))
+                .build();
+        user.setTenantId(id == 3L ? OTHER_TENANT_ID : TENANT_ID);
+        return user;
+    }
+
+    private static final class CountingLoader implements Supplier<User> {
+
+        private final User user;
+        private final AtomicInteger loads = new AtomicInteger();
+
+        private CountingLoader(User user) {
+            this.user = user;
+        }
+
+        @Override
+        public User get() {
+            loads.incrementAndGet();
+            return user;
+        }
+    }
+}
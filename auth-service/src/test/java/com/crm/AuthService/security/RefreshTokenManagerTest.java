@@ -0,0 +1,93 @@
+package com.crm.AuthService.security;
+
+import com.crm.AuthService.exception.InvalidTokenException;
+import com.crm.AuthService.user.entities.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshTokenManagerTest {
+
+    private static final long REFRESH_EXPIRATION_MS = 60_000;
+    private static final long TENANT_ID = 7L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RefreshTokenManager manager = new RefreshTokenManager(
+            new InMemoryRefreshTokenStore(meterRegistry, REFRESH_EXPIRATION_MS, 1000),
+            meterRegistry,
+            REFRESH_EXPIRATION_MS);
+    private final User user = User.builder().id(42L).email("jane@acme.test").build();
+
+    @Test
+    void rotationConsumesTheTokenAndKeepsTheFamily() {
+        String token = manager.issue(user, TENANT_ID);
+        assertTrue(manager.isOpaque(token));
+
+        RefreshTokenRecord record = manager.rotate(token);
+        assertEquals(42L, record.userId());
+        assertEquals(TENANT_ID, record.tenantId());
+        assertEquals("jane@acme.test", record.email());
+
+        String next = manager.issue(user, TENANT_ID, record.familyId());
+        assertNotEquals(token, next);
+        assertEquals(record.familyId(), manager.rotate(next).familyId());
+        assertEquals(2, rotations("rotated"));
+    }
+
+    @Test
+    void reusedTokenRevokesTheWholeFamily() {
+        String token = manager.issue(user, TENANT_ID);
+        RefreshTokenRecord record = manager.rotate(token);
+        String next = manager.issue(user, TENANT_ID, record.familyId());
+
+        assertThrows(InvalidTokenException.class, () -> manager.rotate(token));
+        assertEquals(1, rotations("reused"));
+
+        // The legitimate client's newest token is revoked along with the leaked one
+        assertThrows(InvalidTokenException.class, () -> manager.rotate(next));
+        assertEquals(1, rotations("rejected"));
+    }
+
+    @Test
+    void reuseLeavesOtherSessionsAlone() {
+        String leaked = manager.issue(user, TENANT_ID);
+        String otherSession = manager.issue(user, TENANT_ID);
+        manager.rotate(leaked);
+
+        assertThrows(InvalidTokenException.class, () -> manager.rotate(leaked));
+        assertEquals(42L, manager.rotate(otherSession).userId());
+    }
+
+    @Test
+    void revokeEndsTheSession() {
+        String token = manager.issue(user, TENANT_ID);
+        RefreshTokenRecord record = manager.rotate(token);
+        String next = manager.issue(user, TENANT_ID, record.familyId());
+
+        manager.revoke(next);
+
+        assertThrows(InvalidTokenException.class, () -> manager.rotate(next));
+        assertThrows(InvalidTokenException.class, () -> manager.rotate(manager.issue(user, TENANT_ID, record.familyId())));
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        assertThrows(InvalidTokenException.class, () -> manager.rotate("not-a-token"));
+        manager.revoke("not-a-token");
+        assertEquals(1, rotations("rejected"));
+    }
+
+    @Test
+    void legacyJwtRefreshTokensAreNotOpaque() {
+        assertFalse(manager.isOpaque("header.payload.signature"));
+    }
+
+    private double rotations(String result) {
+        return meterRegistry.get("auth.refresh.rotations").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,102 @@
+package com.crm.AuthService.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedTokenBucketsTest {
+
+    private static final long HOUR_MS = 3_600_000;
+
+    @Test
+    void allowsTheBurstThenReportsTheWait() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(64, 3, HOUR_MS);
+        long key = hash(1, 2);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryAcquire(key));
+        }
+        long waitMs = buckets.tryAcquire(key);
+        assertTrue(waitMs > HOUR_MS / 3 - 1000 && waitMs <= HOUR_MS / 3, "wait was " + waitMs);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(64, 1, 50);
+        long key = hash(5, 6);
+
+        assertEquals(0, buckets.tryAcquire(key));
+        assertTrue(buckets.tryAcquire(key) > 0);
+
+        Thread.sleep(80);
+        assertEquals(0, buckets.tryAcquire(key));
+    }
+
+    @Test
+    void refundGivesTheTokenBack() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(64, 1, HOUR_MS);
+        long key = hash(7, 8);
+
+        assertEquals(0, buckets.tryAcquire(key));
+        buckets.refund(key);
+        assertEquals(0, buckets.tryAcquire(key));
+        assertTrue(buckets.tryAcquire(key) > 0);
+    }
+
+    @Test
+    void refundNeverExceedsCapacity() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(64, 1, HOUR_MS);
+        long key = hash(9, 10);
+
+        buckets.refund(key);
+        buckets.refund(key);
+        assertEquals(0, buckets.tryAcquire(key));
+        assertTrue(buckets.tryAcquire(key) > 0);
+    }
+
+    @Test
+    void keyCollidingOnOneStripeKeepsItsBudget() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(64, 2, HOUR_MS);
+        long abusive = hash(1, 2);
+        long victim = hash(1, 3);
+
+        assertEquals(0, buckets.tryAcquire(abusive));
+        assertEquals(0, buckets.tryAcquire(abusive));
+        assertTrue(buckets.tryAcquire(abusive) > 0);
+
+        // Stripe 1 is drained, stripe 3 still has both tokens
+        assertEquals(0, buckets.tryAcquire(victim));
+        assertEquals(0, buckets.tryAcquire(victim));
+        assertTrue(buckets.tryAcquire(victim) > 0);
+    }
+
+    @Test
+    void keyCollidingOnBothStripesSharesTheBudget() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(64, 1, HOUR_MS);
+
+        assertEquals(0, buckets.tryAcquire(hash(4, 5)));
+        assertTrue(buckets.tryAcquire(hash(5, 4)) > 0);
+    }
+
+    @Test
+    void keyHashingToASingleStripeIsChargedOnce() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(64, 2, HOUR_MS);
+        long key = hash(11, 11);
+
+        assertEquals(0, buckets.tryAcquire(key));
+        assertEquals(0, buckets.tryAcquire(key));
+        assertTrue(buckets.tryAcquire(key) > 0);
+    }
+
+    @Test
+    void rejectsCapacityThatDoesNotFitTheBucket() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedTokenBuckets(64, 0, HOUR_MS));
+        assertThrows(IllegalArgumentException.class, () -> new StripedTokenBuckets(64, 5000, HOUR_MS));
+    }
+
+    private static long hash(int firstStripe, int secondStripe) {
+        return ((long) secondStripe << 32) | firstStripe;
+    }
+}
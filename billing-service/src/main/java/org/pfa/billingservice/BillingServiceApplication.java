@@ -1,12 +1,17 @@
 package org.pfa.billingservice;
 
+import org.pfa.security.DownstreamSecurityConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableScheduling
+@Import(DownstreamSecurityConfiguration.class)
 public class BillingServiceApplication {
 
     public static void main(String[] args) {
@@ -4,6 +4,7 @@ import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import jakarta.servlet.http.HttpServletRequest;
 import org.pfa.billingservice.security.TenantContextHolder;
+import org.pfa.security.InternalIdentityVerifier;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -26,6 +27,12 @@ public class FeignClientInterceptor implements RequestInterceptor {
             if (authHeader != null) {
                 template.header("Authorization", authHeader);
             }
+
+            // 3. Propagate the gateway identity so the callee can skip JWT verification
+            String identityHeader = request.getHeader(InternalIdentityVerifier.HEADER);
+            if (identityHeader != null) {
+                template.header(InternalIdentityVerifier.HEADER, identityHeader);
+            }
         }
     }
 }
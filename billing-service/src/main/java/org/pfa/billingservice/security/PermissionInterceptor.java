@@ -0,0 +1,85 @@
+package org.pfa.billingservice.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pfa.billingservice.annotations.RequirePermission;
+import org.pfa.security.AuthenticatedPrincipal;
+import org.pfa.security.PermissionCatalog;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enforces {@link RequirePermission} on controller methods with a bit test against the permission
+ * bitmask of the authenticated token; no call to auth-service is made.
+ * Method- and class-level requirements are resolved once per handler method.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionInterceptor implements HandlerInterceptor {
+
+    private static final String SUPER_ADMIN_ROLE = "ROLE_SUPER_ADMIN";
+
+    private final PermissionCatalog permissionCatalog;
+
+    private final Map<Method, String[]> requiredKeys = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!permissionCatalog.isEnabled() || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        String[] keys = requiredKeys.computeIfAbsent(handlerMethod.getMethod(),
+                method -> resolve(method, handlerMethod.getBeanType()));
+        if (keys.length == 0) {
+            return true;
+        }
+
+        AuthenticatedPrincipal principal =
+                (AuthenticatedPrincipal) request.getAttribute(AuthenticatedPrincipal.REQUEST_ATTRIBUTE);
+        if (principal != null && principal.getRoles().contains(SUPER_ADMIN_ROLE)) {
+            return true;
+        }
+
+        for (String key : keys) {
+            if (!isGranted(principal, key)) {
+                log.warn("Access denied: user={}, permission={}", principal != null ? principal.getUsername() : null, key);
+                throw new AccessDeniedException("Access denied: Missing permission " + key);
+            }
+        }
+        return true;
+    }
+
+    private boolean isGranted(AuthenticatedPrincipal principal, String key) {
+        if (principal == null || principal.getPermissions() == null
+                || !permissionCatalog.matches(principal.getCatalogVersion())) {
+            return false;
+        }
+        int ordinal = permissionCatalog.ordinalOf(key);
+        return ordinal >= 0 && principal.getPermissions().contains(ordinal);
+    }
+
+    private static String[] resolve(Method method, Class<?> beanType) {
+        List<String> keys = new ArrayList<>(2);
+        RequirePermission methodLevel = method.getAnnotation(RequirePermission.class);
+        if (methodLevel != null) {
+            keys.add(PermissionCatalog.key(methodLevel.resource(), methodLevel.action()));
+        }
+        RequirePermission classLevel = beanType.getAnnotation(RequirePermission.class);
+        if (classLevel != null) {
+            keys.add(PermissionCatalog.key(classLevel.resource(), classLevel.action()));
+        }
+        return keys.toArray(String[]::new);
+    }
+}
@@ -1,5 +1,7 @@
 package org.project.gatewayservice.filter;
 
+import io.jsonwebtoken.Claims;
+import org.project.gatewayservice.util.InternalIdentityCodec;
 import org.project.gatewayservice.util.JwtUtil; // Helper to validate token
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
@@ -10,12 +12,17 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @Component
 public class AuthenticationFilter extends AbstractGatewayFilterFactory<AuthenticationFilter.Config> {
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private InternalIdentityCodec internalIdentityCodec;
+
     public AuthenticationFilter() {
         super(Config.class);
     }
@@ -35,12 +42,13 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
                 authHeader = authHeader.substring(7);
             }
 
+            Claims claims;
             try {
-                // 2. Validate Token (Stateless check)
-                jwtUtil.validateToken(authHeader);
+                // 2. Validate Token (Stateless check) - parsed once, reused below
+                claims = jwtUtil.parseClaims(authHeader);
 
                 // 3. Extract Role and Check Admin access (Optional refinement)
-                String role = jwtUtil.extractRole(authHeader);
+                String role = jwtUtil.extractRole(claims);
                 if (config.isAdminOnly && !"ADMIN".equals(role)) {
                     return onError(exchange, "Admin Access Required", HttpStatus.FORBIDDEN);
                 }
@@ -49,10 +57,35 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
                 return onError(exchange, "Invalid Token", HttpStatus.UNAUTHORIZED);
             }
 
-            return chain.filter(exchange);
+            // 4. Forward the verified identity; a client-supplied copy is always dropped
+            ServerWebExchange forwarded = exchange.mutate()
+                    .request(request -> request.headers(headers -> {
+                        headers.remove(InternalIdentityCodec.HEADER);
+                        if (internalIdentityCodec.isEnabled()) {
+                            headers.set(InternalIdentityCodec.HEADER, encodeIdentity(claims));
+                        }
+                    }))
+                    .build();
+
+            return chain.filter(forwarded);
         };
     }
 
+    @SuppressWarnings("unchecked")
+    private String encodeIdentity(Claims claims) {
+        return internalIdentityCodec.encode(
+                claims.getSubject(),
+                claims.get("tenantId", Long.class),
+                claims.get("roles", List.class),
+                claims.getExpiration(),
+                claims.get("perms", String.class),
+                claims.get("pcv", String.class),
+                claims.getId(),
+                claims.get("userId", Long.class),
+                claims.getIssuedAt()
+        );
+    }
+
     private Mono<Void> onError(ServerWebExchange exchange, String err, HttpStatus httpStatus) {
         exchange.getResponse().setStatusCode(httpStatus);
         return exchange.getResponse().setComplete();
@@ -0,0 +1,58 @@
+package org.project.gatewayservice.util;
+
+import jakarta.annotation.PostConstruct;
+import org.pfa.security.InternalIdentityHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Issues the internal identity header forwarded to downstream services once the JWT has been verified,
+ * so they can authenticate the request with a single HMAC check instead of parsing the token again.
+ * The format is defined by {@link InternalIdentityHeader}, which the downstream services verify with.
+ */
+@Component
+public class InternalIdentityCodec {
+
+    public static final String HEADER = InternalIdentityHeader.NAME;
+
+    @Value("${security.internal-identity.enabled:false}")
+    private boolean enabled;
+
+    @Value("${security.internal-identity.secret:}")
+    private String secret;
+
+    private InternalIdentityHeader identityHeader;
+
+    @PostConstruct
+    void initHeader() {
+        if (!enabled) {
+            return;
+        }
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("security.internal-identity.secret is required when the internal identity header is enabled");
+        }
+        identityHeader = new InternalIdentityHeader(secret);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String encode(String username, Long tenantId, List<String> roles, Date expiresAt,
+                         String permissions, String catalogVersion,
+                         String tokenId, Long userId, Date issuedAt) {
+        return identityHeader.encode(new InternalIdentityHeader.Identity(
+                username,
+                tenantId,
+                roles,
+                expiresAt.toInstant(),
+                permissions,
+                catalogVersion,
+                tokenId,
+                userId,
+                issuedAt != null ? issuedAt.toInstant() : null));
+    }
+}
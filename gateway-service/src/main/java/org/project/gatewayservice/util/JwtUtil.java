@@ -1,15 +1,14 @@
 package org.project.gatewayservice.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
-import java.util.Date;
-
 @Component
 public class JwtUtil {
 
@@ -17,17 +16,30 @@ public class JwtUtil {
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
 
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void initParser() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        jwtParser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(keyBytes)).build();
+    }
+
+    /**
+     * Verifies signature and expiry once and returns the claims for any further checks.
+     */
+    public Claims parseClaims(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
     public void validateToken(String token) {
-        Jwts.parserBuilder().setSigningKey(getSignKey()).build().parseClaimsJws(token);
+        parseClaims(token);
     }
 
     public String extractRole(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(getSignKey()).build().parseClaimsJws(token).getBody();
-        return claims.get("role", String.class); // Assuming you put "role" in the token in user-service
+        return extractRole(parseClaims(token));
     }
 
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public String extractRole(Claims claims) {
+        return claims.get("role", String.class); // Assuming you put "role" in the token in user-service
     }
-}
\ No newline at end of file
+}
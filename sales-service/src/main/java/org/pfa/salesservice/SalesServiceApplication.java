@@ -1,9 +1,14 @@
 package org.pfa.salesservice;
 
+import org.pfa.security.DownstreamSecurityConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@Import(DownstreamSecurityConfiguration.class)
 public class SalesServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,19 @@
+package org.pfa.salesservice.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requires a permission from the auth-service catalog, checked locally against the token's
+ * permission bitmask when {@code security.permissions.enabled} is set.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequirePermission {
+
+    String resource();
+
+    String action();
+}
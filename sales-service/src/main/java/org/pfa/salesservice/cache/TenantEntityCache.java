@@ -0,0 +1,88 @@
+package org.pfa.salesservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.pfa.salesservice.auth.entities.TenantAwareEntity;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of single entities keyed by (tenantId, id).
+ * <p>
+ * The tenant is part of the key and the loaded row's own tenant is checked before it is cached, so an
+ * entry can only ever be served to the tenant that owns it. Misses are not cached. Evictions run
+ * immediately and again after commit, so a concurrent read cannot cache the pre-commit row.
+ * There is no cross-instance invalidation: the TTL bounds how long another instance may serve an old row.
+ * <p>
+ * Cached instances are detached and shared between requests; callers must not modify them.
+ */
+@Slf4j
+public class TenantEntityCache<V extends TenantAwareEntity> {
+
+    private final Cache<TenantKey, V> cache;
+    private final Counter rejectedLoads;
+
+    public TenantEntityCache(String name, long maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        this.rejectedLoads = Counter.builder("sales.cache.tenant.mismatch")
+                .description("Loaded rows not cached because they belong to another tenant")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the entity of the tenant, loading it on a miss; empty when it does not exist or belongs to another tenant.
+     */
+    public Optional<V> get(Long tenantId, Long id, Function<Long, Optional<V>> loader) {
+        Objects.requireNonNull(tenantId, "tenantId");
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.get(new TenantKey(tenantId, id), key -> loader.apply(id)
+                .filter(entity -> ownedBy(entity, tenantId))
+                .orElse(null)));
+    }
+
+    public void evict(Long tenantId, Long id) {
+        if (tenantId == null || id == null) {
+            return;
+        }
+        TenantKey key = new TenantKey(tenantId, id);
+        cache.invalidate(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(key);
+                }
+            });
+        }
+    }
+
+    private boolean ownedBy(V entity, Long tenantId) {
+        if (tenantId.equals(entity.getTenantId())) {
+            return true;
+        }
+        rejectedLoads.increment();
+        log.warn("Cross-tenant read blocked: tenantId={}, ownerTenantId={}", tenantId, entity.getTenantId());
+        return false;
+    }
+
+    private record TenantKey(long tenantId, long id) {
+    }
+}
@@ -0,0 +1,33 @@
+package org.pfa.salesservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.pfa.salesservice.cache.TenantEntityCache;
+import org.pfa.salesservice.entities.Customer;
+import org.pfa.salesservice.entities.Ticket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class EntityCacheConfig {
+
+    @Bean
+    public TenantEntityCache<Customer> customerCache(
+            MeterRegistry meterRegistry,
+            @Value("${sales.cache.customers.max-size:10000}") long maxSize,
+            @Value("${sales.cache.customers.ttl-seconds:60}") long ttlSeconds
+    ) {
+        return new TenantEntityCache<>("customers", maxSize, Duration.ofSeconds(ttlSeconds), meterRegistry);
+    }
+
+    @Bean
+    public TenantEntityCache<Ticket> ticketCache(
+            MeterRegistry meterRegistry,
+            @Value("${sales.cache.tickets.max-size:10000}") long maxSize,
+            @Value("${sales.cache.tickets.ttl-seconds:30}") long ttlSeconds
+    ) {
+        return new TenantEntityCache<>("tickets", maxSize, Duration.ofSeconds(ttlSeconds), meterRegistry);
+    }
+}
@@ -0,0 +1,40 @@
+package org.pfa.salesservice.config;
+
+import lombok.RequiredArgsConstructor;
+import org.pfa.salesservice.security.PermissionInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final PermissionInterceptor permissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(permissionInterceptor);
+    }
+
+    /**
+     * Resolves service names (e.g. http://auth-service) through Eureka. Calls are bounded so a hung
+     * auth-service cannot hold the threads that poll it or confirm denylist hits.
+     */
+    @Bean
+    @LoadBalanced
+    public RestClient.Builder loadBalancedRestClientBuilder(
+            @Value("${security.http-client.connect-timeout-ms:1000}") int connectTimeoutMs,
+            @Value("${security.http-client.read-timeout-ms:2000}") int readTimeoutMs
+    ) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        return RestClient.builder().requestFactory(requestFactory);
+    }
+}
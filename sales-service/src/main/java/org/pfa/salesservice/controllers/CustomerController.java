@@ -1,6 +1,7 @@
 package org.pfa.salesservice.controllers;
 
 import lombok.RequiredArgsConstructor;
+import org.pfa.salesservice.annotations.RequirePermission;
 import org.pfa.salesservice.entities.Customer;
 import org.pfa.salesservice.services.CustomerService;
 import org.springframework.http.HttpStatus;
@@ -18,11 +19,13 @@ public class CustomerController {
     private final CustomerService customerService;
 
     @GetMapping
+    @RequirePermission(resource = "CUSTOMER", action = "READ")
     public ResponseEntity<List<Customer>> getAllCustomers() {
         return ResponseEntity.ok(customerService.getAllCustomers());
     }
 
     @GetMapping("/{id}")
+    @RequirePermission(resource = "CUSTOMER", action = "READ")
     public ResponseEntity<Customer> getCustomerById(@PathVariable Long id) {
         return customerService.getCustomerById(id)
                 .map(ResponseEntity::ok)
@@ -30,11 +33,13 @@ public class CustomerController {
     }
 
     @PostMapping
+    @RequirePermission(resource = "CUSTOMER", action = "CREATE")
     public ResponseEntity<Customer> createCustomer(@RequestBody Customer customer) {
         return new ResponseEntity<>(customerService.createCustomer(customer), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
+    @RequirePermission(resource = "CUSTOMER", action = "UPDATE")
     public ResponseEntity<Customer> updateCustomer(@PathVariable Long id, @RequestBody Customer customer) {
         try {
             return ResponseEntity.ok(customerService.updateCustomer(id, customer));
@@ -44,6 +49,7 @@ public class CustomerController {
     }
 
     @DeleteMapping("/{id}")
+    @RequirePermission(resource = "CUSTOMER", action = "DELETE")
     public ResponseEntity<Void> deleteCustomer(@PathVariable Long id) {
         customerService.deleteCustomer(id);
         return ResponseEntity.noContent().build();
@@ -1,6 +1,7 @@
 package org.pfa.salesservice.controllers;
 
 import lombok.RequiredArgsConstructor;
+import org.pfa.salesservice.annotations.RequirePermission;
 import org.pfa.salesservice.entities.Ticket;
 import org.pfa.salesservice.services.TicketService;
 import org.springframework.http.HttpStatus;
@@ -17,11 +18,13 @@ public class TicketController {
     private final TicketService ticketService;
 
     @GetMapping
+    @RequirePermission(resource = "TICKET", action = "READ")
     public ResponseEntity<List<Ticket>> getAllTickets() {
         return ResponseEntity.ok(ticketService.getAllTickets());
     }
 
     @GetMapping("/{id}")
+    @RequirePermission(resource = "TICKET", action = "READ")
     public ResponseEntity<Ticket> getTicketById(@PathVariable Long id) {
         return ticketService.getTicketById(id)
                 .map(ResponseEntity::ok)
@@ -29,11 +32,13 @@ public class TicketController {
     }
 
     @PostMapping
+    @RequirePermission(resource = "TICKET", action = "CREATE")
     public ResponseEntity<Ticket> createTicket(@RequestBody Ticket ticket) {
         return new ResponseEntity<>(ticketService.createTicket(ticket), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
+    @RequirePermission(resource = "TICKET", action = "UPDATE")
     public ResponseEntity<Ticket> updateTicket(@PathVariable Long id, @RequestBody Ticket ticket) {
         try {
             return ResponseEntity.ok(ticketService.updateTicket(id, ticket));
@@ -43,6 +48,7 @@ public class TicketController {
     }
 
     @DeleteMapping("/{id}")
+    @RequirePermission(resource = "TICKET", action = "DELETE")
     public ResponseEntity<Void> deleteTicket(@PathVariable Long id) {
         ticketService.deleteTicket(id);
         return ResponseEntity.noContent().build();
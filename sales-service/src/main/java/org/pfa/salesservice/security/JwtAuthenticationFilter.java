@@ -7,6 +7,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Session;
+import org.pfa.security.AuthenticatedPrincipal;
+import org.pfa.security.InternalIdentityVerifier;
+import org.pfa.security.JwtService;
+import org.pfa.security.PermissionCatalog;
+import org.pfa.security.TenantStatusRegistry;
+import org.pfa.security.TokenDenylist;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,8 +22,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import jakarta.persistence.EntityManager;
 import java.io.IOException;
-import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,6 +32,10 @@ import java.util.stream.Collectors;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final InternalIdentityVerifier internalIdentityVerifier;
+    private final PermissionCatalog permissionCatalog;
+    private final TokenDenylist tokenDenylist;
+    private final TenantStatusRegistry tenantStatusRegistry;
     private final EntityManager entityManager;
 
     @Override
@@ -35,22 +45,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
 
-        final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
+        try {
+            AuthenticatedPrincipal principal = resolvePrincipal(request);
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            filterChain.doFilter(request, response);
-            return;
-        }
+            if (principal != null && !permissionCatalog.accepts(principal)) {
+                // Permission bits minted against another catalog cannot be decoded here
+                log.debug("Rejected token: permission catalog version {}", principal.getCatalogVersion());
+                principal = null;
+            }
 
-        jwt = authHeader.substring(7);
-        
-        try {
-            // simple validation check first
-            if (jwtService.isTokenValid(jwt)) {
-                userEmail = jwtService.extractUsername(jwt);
-                Long tenantId = jwtService.extractTenantId(jwt);
+            if (principal != null && tokenDenylist.isRevoked(principal)) {
+                // Logged out or revoked by an administrator; a Bloom probe unless the filter hits
+                log.debug("Rejected token: revoked, userId={}", principal.getUserId());
+                principal = null;
+            }
+
+            if (principal != null && !tenantStatusRegistry.isActive(principal.getTenantId())) {
+                log.debug("Rejected token: tenant {} is not active", principal.getTenantId());
+                principal = null;
+            }
+
+            if (principal != null) {
+                request.setAttribute(AuthenticatedPrincipal.REQUEST_ATTRIBUTE, principal);
+                Long tenantId = principal.getTenantId();
 
                 // 1. SET TENANT CONTEXT
                 if (tenantId != null) {
@@ -66,17 +83,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 }
 
                 // 2. SET SECURITY CONTEXT (RBAC FIX)
-                if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                if (principal.getUsername() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                     
-                    // Extract roles directly from JWT (Stateless - No DB call needed here)
-                    List<String> roles = jwtService.extractClaim(jwt, claims -> claims.get("roles", List.class));
-                    
-                    List<SimpleGrantedAuthority> authorities = (roles != null) 
-                            ? roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList())
-                            : Collections.emptyList();
+                    // Roles come from the token or the gateway identity (Stateless - No DB call needed here)
+                    List<SimpleGrantedAuthority> authorities = principal.getRoles().stream()
+                            .map(SimpleGrantedAuthority::new)
+                            .collect(Collectors.toList());
 
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userEmail,
+                            principal.getUsername(),
                             null,
                             authorities
                     );
@@ -98,4 +113,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             TenantContextHolder.clear();
         }
     }
+
+    /**
+     * Prefers the gateway's MAC-protected identity header; direct calls (or a header that does not
+     * verify) fall back to full JWT verification of the Authorization header.
+     */
+    private AuthenticatedPrincipal resolvePrincipal(HttpServletRequest request) {
+        String identityHeader = request.getHeader(InternalIdentityVerifier.HEADER);
+        if (identityHeader != null) {
+            Optional<AuthenticatedPrincipal> identity = internalIdentityVerifier.verify(identityHeader);
+            if (identity.isPresent()) {
+                return identity.get();
+            }
+        }
+
+        final String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+
+        return jwtService.verify(authHeader.substring(7));
+    }
 }
@@ -1,8 +1,10 @@
 package org.pfa.salesservice.services;
 
 import lombok.RequiredArgsConstructor;
+import org.pfa.salesservice.cache.TenantEntityCache;
 import org.pfa.salesservice.entities.Customer;
 import org.pfa.salesservice.repositories.CustomerRepository;
+import org.pfa.salesservice.security.TenantContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,6 +16,7 @@ import java.util.Optional;
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final TenantEntityCache<Customer> customerCache;
 
     @Transactional(readOnly = true)
     public List<Customer> getAllCustomers() {
@@ -22,7 +25,11 @@ public class CustomerService {
 
     @Transactional(readOnly = true)
     public Optional<Customer> getCustomerById(Long id) {
-        return customerRepository.findById(id);
+        Long tenantId = TenantContextHolder.getTenantId();
+        if (tenantId == null) {
+            return customerRepository.findById(id);
+        }
+        return customerCache.get(tenantId, id, customerRepository::findById);
     }
 
     @Transactional
@@ -41,13 +48,19 @@ public class CustomerService {
                     customer.setCity(customerDetails.getCity());
                     customer.setCountry(customerDetails.getCountry());
                     customer.setAssignedToUserId(customerDetails.getAssignedToUserId());
-                    return customerRepository.save(customer);
+                    Customer saved = customerRepository.save(customer);
+                    customerCache.evict(saved.getTenantId(), id);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Customer not found with id " + id));
     }
 
     @Transactional
     public void deleteCustomer(Long id) {
-        customerRepository.deleteById(id);
+        // Loaded first so the entry is evicted under the tenant that owns the row
+        customerRepository.findById(id).ifPresent(customer -> {
+            customerRepository.delete(customer);
+            customerCache.evict(customer.getTenantId(), id);
+        });
     }
 }
@@ -1,8 +1,10 @@
 package org.pfa.salesservice.services;
 
 import lombok.RequiredArgsConstructor;
+import org.pfa.salesservice.cache.TenantEntityCache;
 import org.pfa.salesservice.entities.Ticket;
 import org.pfa.salesservice.repositories.TicketRepository;
+import org.pfa.salesservice.security.TenantContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,6 +16,7 @@ import java.util.Optional;
 public class TicketService {
 
     private final TicketRepository ticketRepository;
+    private final TenantEntityCache<Ticket> ticketCache;
 
     @Transactional(readOnly = true)
     public List<Ticket> getAllTickets() {
@@ -22,7 +25,11 @@ public class TicketService {
 
     @Transactional(readOnly = true)
     public Optional<Ticket> getTicketById(Long id) {
-        return ticketRepository.findById(id);
+        Long tenantId = TenantContextHolder.getTenantId();
+        if (tenantId == null) {
+            return ticketRepository.findById(id);
+        }
+        return ticketCache.get(tenantId, id, ticketRepository::findById);
     }
 
     @Transactional
@@ -40,13 +47,19 @@ public class TicketService {
                     ticket.setPriority(ticketDetails.getPriority());
                     ticket.setAgentId(ticketDetails.getAgentId());
                     // customerId is usually immutable or handled carefully
-                    return ticketRepository.save(ticket);
+                    Ticket saved = ticketRepository.save(ticket);
+                    ticketCache.evict(saved.getTenantId(), id);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Ticket not found with id " + id));
     }
 
     @Transactional
     public void deleteTicket(Long id) {
-        ticketRepository.deleteById(id);
+        // Loaded first so the entry is evicted under the tenant that owns the row
+        ticketRepository.findById(id).ifPresent(ticket -> {
+            ticketRepository.delete(ticket);
+            ticketCache.evict(ticket.getTenantId(), id);
+        });
     }
 }
@@ -0,0 +1,31 @@
+package org.pfa.security;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Caller identity resolved by a service's authentication filter, either from the gateway's
+ * internal identity header ({@link InternalIdentityVerifier}) or from a fully verified JWT ({@link JwtService}).
+ */
+@Value
+@Builder
+public class AuthenticatedPrincipal {
+
+    public static final String REQUEST_ATTRIBUTE = AuthenticatedPrincipal.class.getName();
+
+    String username;
+    Long tenantId;
+    @Builder.Default
+    List<String> roles = List.of();
+    Instant expiresAt;
+    // Permission bitmask and the catalog version it was encoded against; null when the token carries none
+    PermissionBits permissions;
+    String catalogVersion;
+    // Checked against the token denylist; null for tokens minted before they were added
+    String tokenId;
+    Long userId;
+    Instant issuedAt;
+}
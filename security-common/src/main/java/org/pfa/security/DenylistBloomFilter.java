@@ -0,0 +1,100 @@
+package org.pfa.security;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over token denylist entries, built and published by auth-service and mirrored by the other services.
+ * <p>
+ * The bit layout and hashing are part of the wire format, which is why every service uses this one class:
+ * 64-bit FNV-1a over the entry's UTF-16 chars, finished with the MurmurHash3 mixer, gives {@code h1};
+ * {@code h2 = mix(h1 ^ 0x9E3779B97F4A7C15) | 1}; probe {@code i} sets bit {@code floorMod(h1 + i * h2, bitCount)}.
+ * Bits are serialized as big-endian longs. Safe for concurrent {@link #put} and {@link #mightContain}.
+ */
+public final class DenylistBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashes;
+
+    private DenylistBloomFilter(AtomicLongArray words, int hashes) {
+        this.words = words;
+        this.bitCount = (long) words.length() * Long.SIZE;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Sizes the filter for the expected number of entries at the given false positive rate.
+     */
+    public static DenylistBloomFilter create(long expectedEntries, double falsePositiveRate) {
+        long n = Math.max(1, expectedEntries);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+        int hashes = (int) Math.max(1, Math.round((double) wordCount * Long.SIZE / n * Math.log(2)));
+        return new DenylistBloomFilter(new AtomicLongArray(wordCount), Math.min(hashes, 16));
+    }
+
+    public static DenylistBloomFilter fromBytes(byte[] bytes, int hashes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        AtomicLongArray words = new AtomicLongArray(Math.max(1, bytes.length / Long.BYTES));
+        for (int i = 0; buffer.remaining() >= Long.BYTES; i++) {
+            words.set(i, buffer.getLong());
+        }
+        return new DenylistBloomFilter(words, hashes);
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(words.length() * Long.BYTES);
+        for (int i = 0; i < words.length(); i++) {
+            buffer.putLong(words.get(i));
+        }
+        return buffer.array();
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+
+    public void put(String entry) {
+        long h1 = hash(entry);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String entry) {
+        long h1 = hash(entry);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String entry) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < entry.length(); i++) {
+            h ^= entry.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
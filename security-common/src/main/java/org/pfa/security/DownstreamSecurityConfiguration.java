@@ -0,0 +1,14 @@
+package org.pfa.security;
+
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the shared token verification components; imported by the services behind the gateway, which
+ * keep their own authentication filter and {@code @RequirePermission} interceptor. They must also provide the
+ * {@code @LoadBalanced RestClient.Builder} these components use to reach auth-service.
+ */
+@Configuration
+@ComponentScan(basePackageClasses = DownstreamSecurityConfiguration.class)
+public class DownstreamSecurityConfiguration {
+}
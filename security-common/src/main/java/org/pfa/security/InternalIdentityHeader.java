@@ -0,0 +1,125 @@
+package org.pfa.security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The internal identity header the gateway adds once it has verified the JWT, signed by the gateway and
+ * checked by the services behind it with this same class, so both ends always agree on the format.
+ * <p>
+ * Format: {@code v1.<base64url(payload)>.<base64url(HmacSHA256("v1." + payload))>} where the payload is
+ * {@code username \n tenantId \n expiresAtEpochSeconds \n role,role \n perms \n catalogVersion \n tokenId \n userId
+ * \n issuedAtEpochSeconds}; perms (the token's permission bitmask) and catalogVersion are empty when the token
+ * carries no permission claims. Token id, user id and issue time let services check the token denylist; headers
+ * from gateways predating those three fields are still accepted.
+ */
+@Slf4j
+public final class InternalIdentityHeader {
+
+    public static final String NAME = "X-Internal-Identity";
+
+    private static final String VERSION = "v1";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * @param secret base64 HMAC key, shared by the gateway and every service behind it
+     */
+    public InternalIdentityHeader(String secret) {
+        SecretKeySpec key = new SecretKeySpec(Base64.getDecoder().decode(secret), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+            }
+        });
+    }
+
+    public String encode(Identity identity) {
+        String payload = identity.username() + "\n"
+                + (identity.tenantId() != null ? identity.tenantId() : "") + "\n"
+                + identity.expiresAt().getEpochSecond() + "\n"
+                + (identity.roles() != null ? String.join(",", identity.roles()) : "") + "\n"
+                + (identity.permissions() != null ? identity.permissions() : "") + "\n"
+                + (identity.catalogVersion() != null ? identity.catalogVersion() : "") + "\n"
+                + (identity.tokenId() != null ? identity.tokenId() : "") + "\n"
+                + (identity.userId() != null ? identity.userId() : "") + "\n"
+                + (identity.issuedAt() != null ? identity.issuedAt().getEpochSecond() : "");
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String signed = VERSION + "." + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        byte[] mac = macs.get().doFinal(signed.getBytes(StandardCharsets.US_ASCII));
+        return signed + "." + encoder.encodeToString(mac);
+    }
+
+    /**
+     * The identity carried by the header; empty when it is malformed, badly signed or expired.
+     */
+    public Optional<Identity> decode(String header) {
+        int first = header.indexOf('.');
+        int last = header.lastIndexOf('.');
+        if (first <= 0 || last == first || !VERSION.equals(header.substring(0, first))) {
+            return Optional.empty();
+        }
+
+        try {
+            byte[] expected = macs.get().doFinal(header.substring(0, last).getBytes(StandardCharsets.US_ASCII));
+            byte[] actual = Base64.getUrlDecoder().decode(header.substring(last + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                log.warn("Rejected internal identity header: bad signature");
+                return Optional.empty();
+            }
+
+            String payload = new String(Base64.getUrlDecoder().decode(header.substring(first + 1, last)), StandardCharsets.UTF_8);
+            String[] fields = payload.split("\n", -1);
+            if (fields.length != 6 && fields.length != 9) {
+                return Optional.empty();
+            }
+
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[2]));
+            if (!expiresAt.isAfter(Instant.now())) {
+                return Optional.empty();
+            }
+
+            boolean hasTokenFields = fields.length == 9;
+            return Optional.of(new Identity(
+                    fields[0],
+                    fields[1].isEmpty() ? null : Long.parseLong(fields[1]),
+                    fields[3].isEmpty() ? List.of() : List.of(fields[3].split(",")),
+                    expiresAt,
+                    emptyToNull(fields[4]),
+                    emptyToNull(fields[5]),
+                    hasTokenFields ? emptyToNull(fields[6]) : null,
+                    hasTokenFields && !fields[7].isEmpty() ? Long.parseLong(fields[7]) : null,
+                    hasTokenFields && !fields[8].isEmpty() ? Instant.ofEpochSecond(Long.parseLong(fields[8])) : null));
+        } catch (IllegalArgumentException e) {
+            // Malformed base64 or number
+            return Optional.empty();
+        }
+    }
+
+    private static String emptyToNull(String field) {
+        return field.isEmpty() ? null : field;
+    }
+
+    /**
+     * Header fields; {@code permissions} is the token's {@code perms} claim as is (base64url bitmask).
+     */
+    public record Identity(String username, Long tenantId, List<String> roles, Instant expiresAt,
+                           String permissions, String catalogVersion,
+                           String tokenId, Long userId, Instant issuedAt) {
+    }
+}
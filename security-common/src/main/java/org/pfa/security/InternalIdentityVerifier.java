@@ -0,0 +1,67 @@
+package org.pfa.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Verifies the {@link InternalIdentityHeader} added by the gateway once it has validated the JWT.
+ * Checking it is a single MAC, so the JWT does not have to be parsed again. Any header that fails a
+ * check is ignored and the caller falls back to the Authorization header.
+ */
+@Component
+public class InternalIdentityVerifier {
+
+    public static final String HEADER = InternalIdentityHeader.NAME;
+
+    @Value("${security.internal-identity.enabled:false}")
+    private boolean enabled;
+
+    @Value("${security.internal-identity.secret:}")
+    private String secret;
+
+    private InternalIdentityHeader identityHeader;
+
+    @PostConstruct
+    void initHeader() {
+        if (!enabled) {
+            return;
+        }
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("security.internal-identity.secret is required when the internal identity header is enabled");
+        }
+        identityHeader = new InternalIdentityHeader(secret);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<AuthenticatedPrincipal> verify(String header) {
+        if (!enabled || header == null) {
+            return Optional.empty();
+        }
+        try {
+            return identityHeader.decode(header).map(InternalIdentityVerifier::toPrincipal);
+        } catch (IllegalArgumentException e) {
+            // Malformed permission bitmask
+            return Optional.empty();
+        }
+    }
+
+    private static AuthenticatedPrincipal toPrincipal(InternalIdentityHeader.Identity identity) {
+        return AuthenticatedPrincipal.builder()
+                .username(identity.username())
+                .tenantId(identity.tenantId())
+                .roles(identity.roles())
+                .expiresAt(identity.expiresAt())
+                .permissions(identity.permissions() != null ? PermissionBits.fromBase64Url(identity.permissions()) : null)
+                .catalogVersion(identity.catalogVersion())
+                .tokenId(identity.tokenId())
+                .userId(identity.userId())
+                .issuedAt(identity.issuedAt())
+                .build();
+    }
+}
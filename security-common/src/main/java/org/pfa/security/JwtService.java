@@ -0,0 +1,136 @@
+package org.pfa.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Verified tokens are cached by SHA-256 digest until they expire, so a client reusing its access
+ * token pays one hash and one lookup per request instead of an HMAC check and a JSON parse.
+ */
+@Service
+@RequiredArgsConstructor
+public class JwtService {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.secret}")
+    private String secretKey;
+
+    @Value("${jwt.token-cache.max-size:10000}")
+    private long tokenCacheMaxSize;
+
+    private JwtParser jwtParser;
+    private Cache<String, AuthenticatedPrincipal> verifiedTokens;
+
+    @PostConstruct
+    void initParser() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        jwtParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(keyBytes))
+                .build();
+
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaxSize)
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verifiedTokens");
+    }
+
+    /**
+     * Returns the caller identified by the token, verifying it (signature and expiry) only on a cache miss.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public AuthenticatedPrincipal verify(String token) {
+        String digest = digest(token);
+
+        AuthenticatedPrincipal cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.getExpiresAt().isAfter(Instant.now())) {
+            return cached;
+        }
+
+        AuthenticatedPrincipal principal = parse(token);
+        verifiedTokens.put(digest, principal);
+        return principal;
+    }
+
+    @SuppressWarnings("unchecked")
+    private AuthenticatedPrincipal parse(String token) {
+        Claims claims = extractAllClaims(token);
+        List<String> roles = claims.get("roles", List.class);
+        String permissions = claims.get("perms", String.class);
+
+        return AuthenticatedPrincipal.builder()
+                .username(claims.getSubject())
+                .tenantId(claims.get("tenantId", Long.class))
+                .roles(roles != null ? List.copyOf(roles) : List.of())
+                .expiresAt(claims.getExpiration().toInstant())
+                .permissions(permissions != null ? PermissionBits.fromBase64Url(permissions) : null)
+                .catalogVersion(claims.get("pcv", String.class))
+                .tokenId(claims.getId())
+                .userId(claims.get("userId", Long.class))
+                .issuedAt(claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null)
+                .build();
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    private Claims extractAllClaims(String token) {
+        return jwtParser
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    /**
+     * Entries live exactly until the token's own expiration.
+     */
+    private static final class ExpireAtTokenExpiry implements Expiry<String, AuthenticatedPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, AuthenticatedPrincipal value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, AuthenticatedPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, AuthenticatedPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.pfa.security;
+
+import java.util.Base64;
+
+/**
+ * Permission bitmask decoded from the token's {@code perms} claim; bit {@code n} is the
+ * n-th entry of the auth-service permission catalog.
+ */
+public final class PermissionBits {
+
+    private final byte[] bytes;
+
+    private PermissionBits(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Decodes the auth-service encoding: little-endian bytes, base64url without padding.
+     */
+    public static PermissionBits fromBase64Url(String encoded) {
+        return new PermissionBits(Base64.getUrlDecoder().decode(encoded));
+    }
+
+    public boolean contains(int ordinal) {
+        int index = ordinal >> 3;
+        return ordinal >= 0 && index < bytes.length && (bytes[index] & (1 << (ordinal & 7))) != 0;
+    }
+}
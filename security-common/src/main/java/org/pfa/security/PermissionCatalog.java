@@ -0,0 +1,143 @@
+package org.pfa.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Local copy of the auth-service permission catalog, used to map {@code resource:action}
+ * to the bit positions of the token's permission bitmask.
+ * Tokens minted against another catalog version are not accepted; a mismatch triggers a
+ * (rate-limited) background reload in case this copy is the stale one, never a call on the request thread.
+ */
+@Slf4j
+@Component
+public class PermissionCatalog {
+
+    private static final long MISMATCH_RELOAD_INTERVAL_MS = 10_000;
+
+    private final RestClient restClient;
+    private final boolean enabled;
+    private final String catalogUrl;
+
+    private volatile Catalog catalog;
+    private volatile long lastLoadAttempt;
+    private final AtomicBoolean reloadInFlight = new AtomicBoolean();
+
+    public PermissionCatalog(
+            RestClient.Builder restClientBuilder,
+            @Value("${security.permissions.enabled:false}") boolean enabled,
+            @Value("${security.permissions.catalog-url:http://auth-service/api/v1/permissions/catalog}") String catalogUrl
+    ) {
+        this.restClient = restClientBuilder.build();
+        this.enabled = enabled;
+        this.catalogUrl = catalogUrl;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        reload();
+    }
+
+    @Scheduled(
+            initialDelayString = "${security.permissions.refresh-interval-ms:300000}",
+            fixedDelayString = "${security.permissions.refresh-interval-ms:300000}"
+    )
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        lastLoadAttempt = System.currentTimeMillis();
+        try {
+            CatalogResponse response = restClient.get()
+                    .uri(catalogUrl)
+                    .retrieve()
+                    .body(CatalogResponse.class);
+            if (response == null || response.version() == null || response.permissions() == null) {
+                log.error("Permission catalog response is empty");
+                return;
+            }
+
+            Map<String, Integer> ordinals = new HashMap<>(response.permissions().size() * 2);
+            for (int i = 0; i < response.permissions().size(); i++) {
+                ordinals.put(response.permissions().get(i), i);
+            }
+            catalog = new Catalog(response.version(), Map.copyOf(ordinals));
+            log.info("Permission catalog loaded: version={}, permissions={}", response.version(), ordinals.size());
+        } catch (Exception e) {
+            // Keep the previous catalog
+            log.error("Failed to load permission catalog: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * True when the principal's permission claims can be evaluated against this catalog.
+     * Principals without claims are accepted here; permission checks then deny them.
+     */
+    public boolean accepts(AuthenticatedPrincipal principal) {
+        if (!enabled || principal.getCatalogVersion() == null) {
+            return true;
+        }
+        if (matches(principal.getCatalogVersion())) {
+            return true;
+        }
+        if (System.currentTimeMillis() - lastLoadAttempt > MISMATCH_RELOAD_INTERVAL_MS) {
+            reloadInBackground();
+        }
+        return false;
+    }
+
+    private void reloadInBackground() {
+        if (!reloadInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        lastLoadAttempt = System.currentTimeMillis();
+        Thread.ofVirtual().name("permission-catalog-reload").start(() -> {
+            try {
+                reload();
+            } finally {
+                reloadInFlight.set(false);
+            }
+        });
+    }
+
+    /**
+     * Bit position of the permission, or -1 when it is unknown or no catalog is loaded.
+     */
+    public int ordinalOf(String key) {
+        Catalog current = catalog;
+        return current != null ? current.ordinals().getOrDefault(key, -1) : -1;
+    }
+
+    public boolean matches(String version) {
+        Catalog current = catalog;
+        return current != null && current.version().equals(version);
+    }
+
+    /**
+     * Catalog key as issued by auth-service: "resource:action" in lower case.
+     */
+    public static String key(String resource, String action) {
+        return resource.toLowerCase(Locale.ROOT) + ':' + action.toLowerCase(Locale.ROOT);
+    }
+
+    private record Catalog(String version, Map<String, Integer> ordinals) {
+    }
+
+    private record CatalogResponse(String version, List<String> permissions) {
+    }
+}
@@ -0,0 +1,135 @@
+package org.pfa.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.Map;
+
+/**
+ * Local copy of the auth-service tenant status snapshot: the ids of every tenant that is not ACTIVE.
+ * Polled with its ETag, so an unchanged snapshot costs a 304, and checked per request with a single
+ * in-memory lookup. Fails open: until a snapshot is loaded, or while auth-service cannot be reached,
+ * the last known statuses apply.
+ */
+@Slf4j
+@Component
+public class TenantStatusRegistry {
+
+    private final RestClient restClient;
+    private final boolean enabled;
+    private final String snapshotUrl;
+
+    private volatile LongSet inactiveTenants = LongSet.EMPTY;
+    private volatile String etag;
+
+    public TenantStatusRegistry(
+            RestClient.Builder restClientBuilder,
+            @Value("${security.tenant-status.enabled:true}") boolean enabled,
+            @Value("${security.tenant-status.snapshot-url:http://auth-service/api/v1/tenants/status-snapshot}") String snapshotUrl
+    ) {
+        this.restClient = restClientBuilder.build();
+        this.enabled = enabled;
+        this.snapshotUrl = snapshotUrl;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        reload();
+    }
+
+    @Scheduled(
+            initialDelayString = "${security.tenant-status.refresh-interval-ms:2000}",
+            fixedDelayString = "${security.tenant-status.refresh-interval-ms:2000}"
+    )
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            String current = etag;
+            ResponseEntity<SnapshotResponse> response = restClient.get()
+                    .uri(snapshotUrl)
+                    .headers(headers -> {
+                        if (current != null) {
+                            headers.set(HttpHeaders.IF_NONE_MATCH, current);
+                        }
+                    })
+                    .retrieve()
+                    .toEntity(SnapshotResponse.class);
+            SnapshotResponse body = response.getBody();
+            if (response.getStatusCode().value() == 304 || body == null || body.statuses() == null) {
+                return;
+            }
+
+            inactiveTenants = LongSet.of(body.statuses().keySet().stream().mapToLong(Long::parseLong).toArray());
+            etag = response.getHeaders().getETag();
+            log.info("Tenant status snapshot loaded: version={}, inactive={}", body.version(), body.statuses().size());
+        } catch (Exception e) {
+            // Keep the previous snapshot
+            log.warn("Failed to load tenant status snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * False when auth-service reports the tenant as suspended or deactivated.
+     */
+    public boolean isActive(Long tenantId) {
+        return tenantId == null || !inactiveTenants.contains(tenantId);
+    }
+
+    /**
+     * Read-only open-addressing set of tenant ids, which are always positive: 0 marks an empty slot.
+     */
+    private static final class LongSet {
+
+        static final LongSet EMPTY = of(new long[0]);
+
+        private final long[] keys;
+        private final int mask;
+
+        private LongSet(int capacity) {
+            this.keys = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        static LongSet of(long[] ids) {
+            int capacity = Integer.highestOneBit(Math.max(16, ids.length * 2) - 1) << 1;
+            LongSet set = new LongSet(capacity);
+            for (long id : ids) {
+                int slot = set.slot(id);
+                while (set.keys[slot] != 0 && set.keys[slot] != id) {
+                    slot = (slot + 1) & set.mask;
+                }
+                set.keys[slot] = id;
+            }
+            return set;
+        }
+
+        boolean contains(long id) {
+            int slot = slot(id);
+            long key;
+            while ((key = keys[slot]) != 0) {
+                if (key == id) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        private int slot(long id) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+
+    private record SnapshotResponse(String version, Map<String, String> statuses) {
+    }
+}
@@ -0,0 +1,173 @@
+package org.pfa.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Local copy of the auth-service token denylist Bloom filter, polled with its ETag so an unchanged
+ * filter costs a 304. Tokens that miss the filter are accepted without any call; a hit is confirmed
+ * against auth-service and the answer cached until the next refresh.
+ * Fails open: until a filter is loaded, or when auth-service cannot be reached, tokens are accepted.
+ */
+@Slf4j
+@Component
+public class TokenDenylist {
+
+    private final RestClient restClient;
+    // Bloom hits are confirmed on the request thread, so they get a much shorter timeout than the poller
+    private final RestClient lookupClient;
+    private final boolean enabled;
+    private final String bloomUrl;
+    private final String entryUrl;
+
+    private volatile DenylistBloomFilter filter;
+    private volatile String etag;
+    // Confirmed Bloom hits: revocation time, or empty for a false positive
+    private final Cache<String, Optional<Long>> lookups;
+
+    private final Counter revoked;
+    private final Counter falsePositives;
+
+    public TokenDenylist(
+            RestClient.Builder restClientBuilder,
+            MeterRegistry meterRegistry,
+            @Value("${security.token-denylist.enabled:true}") boolean enabled,
+            @Value("${security.token-denylist.bloom-url:http://auth-service/api/v1/auth/denylist/bloom}") String bloomUrl,
+            @Value("${security.token-denylist.entry-url:http://auth-service/api/v1/auth/denylist/entries/{entry}}") String entryUrl,
+            @Value("${security.token-denylist.refresh-interval-ms:5000}") long refreshIntervalMs,
+            @Value("${security.token-denylist.lookup-timeout-ms:300}") int lookupTimeoutMs
+    ) {
+        SimpleClientHttpRequestFactory lookupRequestFactory = new SimpleClientHttpRequestFactory();
+        lookupRequestFactory.setConnectTimeout(lookupTimeoutMs);
+        lookupRequestFactory.setReadTimeout(lookupTimeoutMs);
+        this.restClient = restClientBuilder.build();
+        this.lookupClient = restClientBuilder.clone().requestFactory(lookupRequestFactory).build();
+        this.enabled = enabled;
+        this.bloomUrl = bloomUrl;
+        this.entryUrl = entryUrl;
+        this.lookups = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(refreshIntervalMs))
+                .build();
+        this.revoked = bloomHitCounter(meterRegistry, "revoked");
+        this.falsePositives = bloomHitCounter(meterRegistry, "false_positive");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        reload();
+    }
+
+    @Scheduled(
+            initialDelayString = "${security.token-denylist.refresh-interval-ms:5000}",
+            fixedDelayString = "${security.token-denylist.refresh-interval-ms:5000}"
+    )
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            String current = etag;
+            ResponseEntity<BloomResponse> response = restClient.get()
+                    .uri(bloomUrl)
+                    .headers(headers -> {
+                        if (current != null) {
+                            headers.set(HttpHeaders.IF_NONE_MATCH, current);
+                        }
+                    })
+                    .retrieve()
+                    .toEntity(BloomResponse.class);
+            BloomResponse body = response.getBody();
+            if (response.getStatusCode().value() == 304 || body == null || body.bits() == null) {
+                return;
+            }
+
+            filter = DenylistBloomFilter.fromBytes(Base64.getDecoder().decode(body.bits()), body.hashes());
+            etag = response.getHeaders().getETag();
+            // Earlier false positives may have been revoked since
+            lookups.invalidateAll();
+            log.debug("Token denylist filter loaded: version={}", body.version());
+        } catch (Exception e) {
+            // Keep the previous filter
+            log.warn("Failed to load token denylist: {}", e.getMessage());
+        }
+    }
+
+    public boolean isRevoked(AuthenticatedPrincipal principal) {
+        DenylistBloomFilter current = filter;
+        if (!enabled || current == null) {
+            return false;
+        }
+        if (principal.getTokenId() != null && revokedAt(current, "t:" + principal.getTokenId()) != null) {
+            return true;
+        }
+        if (principal.getUserId() == null || principal.getTenantId() == null || principal.getIssuedAt() == null) {
+            return false;
+        }
+        Long userRevokedAt = revokedAt(current, "u:" + principal.getTenantId() + ":" + principal.getUserId());
+        // iat only has whole seconds: tokens from the revocation's own second are given the benefit of the doubt,
+        // otherwise a login right after a revocation would be rejected for the token's whole lifetime
+        return userRevokedAt != null && principal.getIssuedAt().getEpochSecond() < Math.floorDiv(userRevokedAt, 1000);
+    }
+
+    private Long revokedAt(DenylistBloomFilter current, String entry) {
+        if (!current.mightContain(entry)) {
+            return null;
+        }
+        Optional<Long> cached = lookups.getIfPresent(entry);
+        if (cached == null) {
+            cached = lookup(entry);
+            if (cached == null) {
+                return null;
+            }
+            lookups.put(entry, cached);
+            (cached.isPresent() ? revoked : falsePositives).increment();
+        }
+        return cached.orElse(null);
+    }
+
+    // Null when auth-service could not answer; not cached, so the next request asks again
+    private Optional<Long> lookup(String entry) {
+        try {
+            Map<?, ?> body = lookupClient.get()
+                    .uri(entryUrl, entry)
+                    .retrieve()
+                    .body(Map.class);
+            Object revokedAt = body != null ? body.get("revokedAt") : null;
+            return revokedAt instanceof Number number ? Optional.of(number.longValue()) : Optional.empty();
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        } catch (Exception e) {
+            log.warn("Token denylist lookup failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Counter bloomHitCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("security.denylist.bloom.hits")
+                .description("Token denylist Bloom filter hits confirmed with auth-service")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record BloomResponse(String version, int hashes, String bits) {
+    }
+}
@@ -0,0 +1,75 @@
+package org.pfa.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DenylistBloomFilterTest {
+
+    @Test
+    void containsEveryEntryPut() {
+        DenylistBloomFilter filter = DenylistBloomFilter.create(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("t:" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("t:" + i));
+        }
+    }
+
+    @Test
+    void roundTripsThroughItsSerializedForm() {
+        DenylistBloomFilter filter = DenylistBloomFilter.create(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("u:7:" + i);
+        }
+
+        DenylistBloomFilter mirrored = DenylistBloomFilter.fromBytes(filter.toBytes(), filter.getHashes());
+
+        assertArrayEquals(filter.toBytes(), mirrored.toBytes());
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(filter.mightContain("u:7:" + i), mirrored.mightContain("u:7:" + i));
+        }
+    }
+
+    @Test
+    void staysCloseToTheTargetFalsePositiveRate() {
+        DenylistBloomFilter filter = DenylistBloomFilter.create(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("t:revoked-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("t:live-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        DenylistBloomFilter filter = DenylistBloomFilter.create(0, 0.01);
+
+        assertFalse(filter.mightContain("t:anything"));
+        assertFalse(DenylistBloomFilter.fromBytes(new byte[0], 1).mightContain("t:anything"));
+    }
+
+    // The layout is shared between auth-service and the services mirroring its filter, so it must not change
+    @Test
+    void keepsTheWireLayout() {
+        DenylistBloomFilter filter = DenylistBloomFilter.create(4, 0.01);
+        filter.put("t:3f1c");
+        filter.put("u:7:42");
+
+        assertEquals(11, filter.getHashes());
+        assertEquals("4422224550888815", HexFormat.of().formatHex(filter.toBytes()));
+    }
+}